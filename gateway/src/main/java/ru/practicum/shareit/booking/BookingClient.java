@@ -1,38 +1,42 @@
 package ru.practicum.shareit.booking;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.NewBookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerRequestFactory;
 
 @Service
+@Profile("!reactive")
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ServerRequestFactory requestFactory,
+                         @Value("${shareit-server.passthrough:false}") boolean passthrough) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                passthrough
         );
     }
 
-    public ResponseEntity<Object> getAllBookingsByUser(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> getAllBookingsByUser(long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = pageParameters(state, cursor, size);
+        return get("?" + pageQuery(parameters), userId, parameters);
     }
 
 
@@ -52,10 +56,35 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByItemByUserId(long ownerId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        return get("/owner?state={state}", ownerId, parameters);
+    public ResponseEntity<Object> getAllBookingsByItemByUserId(long ownerId, BookingState state,
+                                                               String cursor, Integer size) {
+        Map<String, Object> parameters = pageParameters(state, cursor, size);
+        return get("/owner?" + pageQuery(parameters), ownerId, parameters);
+    }
+
+    /**
+     * Без size и cursor сервер отдает список целиком, поэтому пустые параметры не передаются.
+     */
+    static Map<String, Object> pageParameters(BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        if (size != null) {
+            parameters.put("size", size);
+        }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
+
+    static String pageQuery(Map<String, Object> parameters) {
+        StringBuilder query = new StringBuilder("state={state}");
+        if (parameters.containsKey("size")) {
+            query.append("&size={size}");
+        }
+        if (parameters.containsKey("cursor")) {
+            query.append("&cursor={cursor}");
+        }
+        return query.toString();
     }
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.NewBookingRequestDto;
@@ -13,6 +16,7 @@ import ru.practicum.shareit.booking.dto.BookingState;
 
 
 @Controller
+@Profile("!reactive")
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
@@ -45,20 +49,31 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<Object> getAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
                                                        @RequestParam(name = "state", defaultValue = "all")
-                                                       String stateParam) {
+                                                       String stateParam,
+                                                       @RequestParam(name = "cursor", required = false)
+                                                       String cursor,
+                                                       @Positive @Max(100)
+                                                       @RequestParam(name = "size", required = false)
+                                                       Integer size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}", stateParam, userId);
-        return bookingClient.getAllBookingsByUser(userId, state);
+        log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+        return bookingClient.getAllBookingsByUser(userId, state, cursor, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllBookingsByItemByUserId(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                               @RequestParam(name = "state", required = false)
-                                                               String stateParam) {
+                                                               @RequestParam(name = "state", defaultValue = "all")
+                                                               String stateParam,
+                                                               @RequestParam(name = "cursor", required = false)
+                                                               String cursor,
+                                                               @Positive @Max(100)
+                                                               @RequestParam(name = "size", required = false)
+                                                               Integer size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking by owner with state {}, ownerId={}", stateParam, ownerId);
-        return bookingClient.getAllBookingsByItemByUserId(ownerId, state);
+        log.info("Get booking by owner with state {}, ownerId={}, cursor={}, size={}",
+                stateParam, ownerId, cursor, size);
+        return bookingClient.getAllBookingsByItemByUserId(ownerId, state, cursor, size);
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.NewBookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ServerConnector;
+
+import static ru.practicum.shareit.booking.BookingClient.pageParameters;
+import static ru.practicum.shareit.booking.BookingClient.pageQuery;
+
+@Service
+@Profile("reactive")
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                 ServerConnector connector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(connector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsByUser(long userId, BookingState state,
+                                                                       String cursor, Integer size) {
+        Map<String, Object> parameters = pageParameters(state, cursor, size);
+        return get("?" + pageQuery(parameters), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBooking(long userId, NewBookingRequestDto requestDto) {
+        return post("", userId, requestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateBookingStatus(Long bookingId, Boolean approved,
+                                                                      long ownerId) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        String path = String.format("/%d?approved=%b", bookingId, approved);
+        return patch(path, ownerId, parameters, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsByItemByUserId(long ownerId, BookingState state,
+                                                                               String cursor, Integer size) {
+        Map<String, Object> parameters = pageParameters(state, cursor, size);
+        return get("/owner?" + pageQuery(parameters), ownerId, parameters);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.NewBookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveBookingController {
+    private final ReactiveBookingClient bookingClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                @RequestBody @Valid
+                                                                NewBookingRequestDto requestDto) {
+        log.info("Creating booking {}, userId={}", requestDto, userId);
+        return bookingClient.createBooking(userId, requestDto);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateBookingStatus(
+            @PathVariable Long bookingId,
+            @RequestParam(name = "approved") Boolean approved,
+            @RequestHeader("X-Sharer-User-Id") long ownerId) {
+        log.info("Updating booking: approved = {}, bookingId={}", approved, bookingId);
+        return bookingClient.updateBookingStatus(bookingId, approved, ownerId);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                             @PathVariable Long bookingId) {
+        log.info("Get booking {}, userId={}", bookingId, userId);
+        return bookingClient.getBooking(userId, bookingId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsByUser(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Positive @Max(100) @RequestParam(name = "size", required = false) Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+        return bookingClient.getAllBookingsByUser(userId, state, cursor, size);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsByItemByUserId(
+            @RequestHeader("X-Sharer-User-Id") long ownerId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Positive @Max(100) @RequestParam(name = "size", required = false) Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Get booking by owner with state {}, ownerId={}, cursor={}, size={}",
+                stateParam, ownerId, cursor, size);
+        return bookingClient.getAllBookingsByItemByUserId(ownerId, state, cursor, size);
+    }
+}
@@ -1,22 +1,46 @@
 package ru.practicum.shareit.client;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpResponse;
 import jakarta.annotation.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestTemplate;
 
 public abstract class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+
     protected final RestTemplate rest;
+    private final RestClient restClient;
+    private final boolean passthrough;
 
-    public BaseClient(RestTemplate rest) {
+    /**
+     * @param passthrough передавать ответ сервера клиенту байтами, не разбирая JSON
+     */
+    public BaseClient(RestTemplate rest, boolean passthrough) {
         this.rest = rest;
+        this.restClient = RestClient.create(rest);
+        this.passthrough = passthrough;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -83,8 +107,79 @@ public abstract class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * GET через кэш ответов. При промахе ответ читается целиком, чтобы его можно было сохранить.
+     */
+    protected ResponseEntity<Object> getCached(ResponseCache cache, String path,
+                                               @Nullable Map<String, Object> parameters) {
+        URI uri = uri(path, parameters);
+        ResponseEntity<Object> cached = cache.get(uri);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = cache.stamp();
+        ResponseEntity<byte[]> response;
+        try {
+            response = rest.exchange(uri, HttpMethod.GET, new HttpEntity<>(defaultHeaders(null)), byte[].class);
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders() != null ? endToEndHeaders(e.getResponseHeaders()) : null)
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        cache.put(uri, response, stamp);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(endToEndHeaders(response.getHeaders()))
+                .body(response.getBody());
+    }
+
+    protected URI uri(String path, @Nullable Map<String, Object> parameters) {
+        return rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+    }
+
+    /**
+     * Передает тело запроса на сервер и ответ сервера клиенту потоком, не собирая их в памяти.
+     */
+    protected void stream(HttpMethod method, String path, long userId, MediaType contentType,
+                          InputStream body, HttpServletResponse response) throws IOException {
+        try {
+            rest.execute(path, method, request -> {
+                request.getHeaders().setContentType(contentType);
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                if (request instanceof StreamingHttpOutputMessage streaming) {
+                    streaming.setBody(body::transferTo);
+                } else {
+                    body.transferTo(request.getBody());
+                }
+            }, serverResponse -> {
+                copy(serverResponse.getStatusCode(), serverResponse.getHeaders(), serverResponse.getBody(), response);
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            copy(e.getStatusCode(), e.getResponseHeaders(), new ByteArrayInputStream(e.getResponseBodyAsByteArray()),
+                    response);
+        }
+    }
+
+    private static void copy(HttpStatusCode status, @Nullable HttpHeaders headers, InputStream body,
+                             HttpServletResponse response) throws IOException {
+        response.setStatus(status.value());
+        if (headers != null && headers.getContentType() != null) {
+            response.setContentType(headers.getContentType().toString());
+        }
+        OutputStream output = response.getOutputStream();
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+            output.flush();
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
                                                           @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (passthrough) {
+            return sendPassthrough(method, path, userId, parameters, body);
+        }
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
         ResponseEntity<Object> shareitServerResponse;
@@ -100,6 +195,33 @@ public abstract class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Отдает ответ сервера, в том числе с ошибкой, как есть: статус, заголовки и поток тела. Соединение
+     * остается открытым, пока тело не будет дописано клиенту, и возвращается в пул при закрытии потока.
+     */
+    private <T> ResponseEntity<Object> sendPassthrough(HttpMethod method, String path, Long userId,
+                                                       @Nullable Map<String, Object> parameters, @Nullable T body) {
+        RestClient.RequestBodySpec request = restClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        if (body != null) {
+            request.body(body);
+        }
+        return request.exchange((clientRequest, response) -> ResponseEntity.status(response.getStatusCode())
+                .headers(endToEndHeaders(response.getHeaders()))
+                .body(new InputStreamResource(new ResponseBodyStream(response))), false);
+    }
+
+    static HttpHeaders endToEndHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -123,4 +245,22 @@ public abstract class BaseClient {
 
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+
+    private static class ResponseBodyStream extends FilterInputStream {
+        private final ClientHttpResponse response;
+
+        ResponseBodyStream(ClientHttpResponse response) throws IOException {
+            super(response.getBody());
+            this.response = response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                response.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.annotation.Nullable;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокирующий аналог {@link BaseClient}. Ответ сервера, в том числе с ошибкой, передается клиенту
+ * со статусом и сквозными заголовками (Content-Type, X-Next-Cursor и другие) как есть, тело идет потоком
+ * буферов без разбора JSON. Если очередь за
+ * соединением с сервером переполнена или соединение не освободилось вовремя, клиент получает 503.
+ */
+public abstract class ReactiveBaseClient {
+    private static final String PENDING_LIMIT_EXCEPTION = "PoolAcquirePendingLimitException";
+
+    protected final WebClient client;
+
+    public ReactiveBaseClient(WebClient client) {
+        this.client = client;
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, @Nullable Map<String, Object> parameters) {
+        return get(path, null, parameters);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId,
+                                                         @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
+        return post(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, long userId, T body) {
+        return post(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId,
+                                                              @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
+        return patch(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId,
+                                                               @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
+        return delete(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, Long userId,
+                                                            @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+
+    /**
+     * Передает тело запроса на сервер и ответ сервера клиенту потоком, не собирая их в памяти.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, String path, long userId,
+                                                            MediaType contentType, Flux<DataBuffer> body) {
+        return exchange(client.method(method)
+                .uri(path)
+                .contentType(contentType)
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .body(BodyInserters.fromDataBuffers(body)));
+    }
+
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path,
+                                                                          Long userId,
+                                                                          @Nullable Map<String, Object> parameters,
+                                                                          @Nullable T body) {
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> defaultHeaders(headers, userId));
+        return exchange(body != null ? request.bodyValue(body) : request);
+    }
+
+    private static Mono<ResponseEntity<Flux<DataBuffer>>> exchange(WebClient.RequestHeadersSpec<?> request) {
+        return request.retrieve()
+                .onStatus(HttpStatusCode::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(ReactiveBaseClient::prepareGatewayResponse)
+                .onErrorResume(ReactiveBaseClient::isPoolExhausted,
+                        exception -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()));
+    }
+
+    /**
+     * Исключения пула Reactor Netty лежат во внутреннем пакете: ожидание сверх срока узнается
+     * по TimeoutException, переполнение очереди по имени класса.
+     */
+    private static boolean isPoolExhausted(Throwable exception) {
+        if (!(exception instanceof WebClientRequestException) || exception.getCause() == null) {
+            return false;
+        }
+        Throwable cause = exception.getCause();
+        return cause instanceof TimeoutException
+                || PENDING_LIMIT_EXCEPTION.equals(cause.getClass().getSimpleName());
+    }
+
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(BaseClient.endToEndHeaders(response.getHeaders()))
+                .body(response.getBody());
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Кэш ответов сервера на GET по полному URI с параметрами. Хранятся только ответы 200. Срок жизни
+ * задает Cache-Control сервера (s-maxage, затем max-age), без него действует ttl. Ответы с no-store,
+ * no-cache и private не кэшируются. Объем ограничен суммарным размером тел.
+ * <p>
+ * Как и кэши представлений на сервере, загрузка сверяет счетчик сбросов: ответ, прочитанный до
+ * изменения и пришедший после сброса, в кэш не попадает.
+ */
+public abstract class ResponseCache {
+    private final Cache<URI, CachedResponse> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter invalidationCounter;
+    private final Duration ttl;
+
+    protected ResponseCache(String name, MeterRegistry meterRegistry, Duration ttl, DataSize maxSize) {
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((URI uri, CachedResponse response) -> uri.toString().length() + response.body().length)
+                .expireAfter(new ResponseExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("shareit.gateway.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Доля запросов, отданных из кэша")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.invalidationCounter = Counter.builder("shareit.gateway.cache.invalidations")
+                .description("Сбросы после изменений, прошедших через шлюз")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    @Nullable
+    ResponseEntity<Object> get(URI uri) {
+        CachedResponse cached = cache.getIfPresent(uri);
+        return cached != null ? cached.toResponse() : null;
+    }
+
+    long stamp() {
+        return invalidations.get();
+    }
+
+    void put(URI uri, ResponseEntity<byte[]> response, long stamp) {
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            return;
+        }
+        Duration lifetime = lifetime(response.getHeaders());
+        if (lifetime.isZero()) {
+            return;
+        }
+        cache.put(uri, new CachedResponse(BaseClient.endToEndHeaders(response.getHeaders()), response.getBody(),
+                lifetime.toNanos()));
+        if (invalidations.get() != stamp) {
+            cache.invalidate(uri);
+        }
+    }
+
+    public void evict(URI uri) {
+        invalidations.incrementAndGet();
+        invalidationCounter.increment();
+        cache.invalidate(uri);
+    }
+
+    public void evictIf(Predicate<URI> matches) {
+        invalidations.incrementAndGet();
+        invalidationCounter.increment();
+        cache.asMap().keySet().removeIf(matches);
+    }
+
+    Duration lifetime(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return ttl;
+        }
+        Duration maxAge = null;
+        Duration sharedMaxAge = null;
+        for (String directive : cacheControl.toLowerCase().split(",")) {
+            String value = directive.trim();
+            if (value.equals("no-store") || value.equals("no-cache") || value.equals("private")) {
+                return Duration.ZERO;
+            } else if (value.startsWith("s-maxage=")) {
+                sharedMaxAge = seconds(value.substring("s-maxage=".length()));
+            } else if (value.startsWith("max-age=")) {
+                maxAge = seconds(value.substring("max-age=".length()));
+            }
+        }
+        if (sharedMaxAge != null) {
+            return sharedMaxAge;
+        }
+        return maxAge != null ? maxAge : ttl;
+    }
+
+    private static Duration seconds(String value) {
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            return Duration.ZERO;
+        }
+    }
+
+    private record CachedResponse(HttpHeaders headers, byte[] body, long ttlNanos) {
+        ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+
+    private static class ResponseExpiry implements Expiry<URI, CachedResponse> {
+        @Override
+        public long expireAfterCreate(URI uri, CachedResponse response, long currentTime) {
+            return response.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(URI uri, CachedResponse response, long currentTime, long currentDuration) {
+            return response.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(URI uri, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Общий для реактивных клиентов коннектор к серверу с одним пулом соединений Reactor Netty. По умолчанию
+ * пул держит вдвое больше соединений, чем ядер, поэтому размер пула задается той же настройкой, что и у
+ * блокирующего стека. Reactor Netty держит отдельный пул на каждый адрес, поэтому его размер берется из лимита
+ * на маршрут. Очередь ожидания соединения ограничена по длине и по времени ожидания: запрос сверх очереди или
+ * не дождавшийся соединения получает 503, а не копится в памяти. Занятые, свободные соединения и очередь
+ * ожидания видны в метриках reactor.netty.connection.provider.*.
+ */
+@Component
+@Profile("reactive")
+public class ServerConnector extends ReactorClientHttpConnector implements DisposableBean {
+    private final ConnectionProvider connectionProvider;
+
+    @Autowired
+    public ServerConnector(@Value("${shareit-server.max-connections-per-route:${shareit-server.max-connections:500}}")
+                           int maxConnectionsPerRoute,
+                           @Value("${shareit-server.keep-alive:30s}") Duration keepAlive,
+                           @Value("${shareit-server.idle-timeout:60s}") Duration idleTimeout,
+                           @Value("${shareit-server.h2c:false}") boolean h2c,
+                           @Value("${shareit-server.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+                           @Value("${shareit-server.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout) {
+        this(ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnectionsPerRoute)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(keepAlive)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build(), h2c);
+    }
+
+    private ServerConnector(ConnectionProvider connectionProvider, boolean h2c) {
+        super(HttpClient.create(connectionProvider)
+                .protocol(h2c ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11}));
+        this.connectionProvider = connectionProvider;
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Общая для всех клиентов фабрика запросов к серверу с одним пулом соединений. По умолчанию HttpClient
+ * держит не больше пяти соединений на хост, и при виртуальных потоках ожидание соединения стало бы
+ * новым пределом параллельности, поэтому размеры пула задаются настройками. Занятые, свободные соединения
+ * и очередь ожидания видны в метриках httpcomponents.httpclient.pool.*.
+ * <p>
+ * С shareit-server.h2c=true запросы идут по HTTP/2 без TLS через HttpClient из JDK: после апгрейда
+ * первого соединения все запросы мультиплексируются в нем, и пул не нужен.
+ */
+@Component
+@Profile("!reactive")
+public class ServerRequestFactory implements ClientHttpRequestFactory, DisposableBean {
+    private static final String POOL_NAME = "shareit-server";
+
+    private final ClientHttpRequestFactory delegate;
+
+    public ServerRequestFactory(MeterRegistry meterRegistry,
+                                @Value("${shareit-server.max-connections:500}") int maxConnections,
+                                @Value("${shareit-server.max-connections-per-route:${shareit-server.max-connections:500}}")
+                                int maxConnectionsPerRoute,
+                                @Value("${shareit-server.keep-alive:30s}") Duration keepAlive,
+                                @Value("${shareit-server.idle-timeout:60s}") Duration idleTimeout,
+                                @Value("${shareit-server.h2c:false}") boolean h2c) {
+        if (h2c) {
+            this.delegate = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .build());
+            return;
+        }
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        this.delegate = new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()))
+                .build());
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return delegate.createRequest(uri, httpMethod);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+}
@@ -1,58 +1,120 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerRequestFactory;
 import ru.practicum.shareit.item.dto.NewCommentRequest;
 import ru.practicum.shareit.item.dto.NewItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
+@Profile("!reactive")
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final ItemResponseCache responseCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ServerRequestFactory requestFactory,
+                      @Value("${shareit-server.passthrough:false}") boolean passthrough,
+                      ItemResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                passthrough
         );
+        this.responseCache = responseCache;
     }
 
     public ResponseEntity<Object> createItem(long ownerId, NewItemDto requestDto) {
-        return post("", ownerId, requestDto);
+        ResponseEntity<Object> response = post("", ownerId, requestDto);
+        evictSearches();
+        return response;
+    }
+
+    public void importItems(long ownerId, MediaType contentType, InputStream body,
+                            HttpServletResponse response) throws IOException {
+        try {
+            stream(HttpMethod.POST, "/bulk", ownerId, contentType, body, response);
+        } finally {
+            evictSearches();
+        }
     }
 
     public ResponseEntity<Object> updateItem(Long itemId, long ownerId, UpdateItemRequest updateItemRequest) {
-        return patch("/" + itemId,ownerId, updateItemRequest);
+        ResponseEntity<Object> response = patch("/" + itemId,ownerId, updateItemRequest);
+        evictItem(itemId);
+        evictSearches();
+        return response;
     }
 
     public ResponseEntity<Object> getItem(Long itemId) {
-        return get("/" + itemId);
+        return getCached(responseCache, "/" + itemId, null);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", parameters);
     }
 
     public ResponseEntity<Object> getOwnerItems(long ownerId) {
         return get("", ownerId);
     }
 
-    public ResponseEntity<Object> searchItem(String text) {
-        Map<String, Object> parameters = Map.of(
-                "text", text
-        );
-        return get("/search?text={text}", parameters);
+    public ResponseEntity<Object> searchItem(String text, LocalDateTime start, LocalDateTime end,
+                                             Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        String path = "/search?text={text}&from={from}&size={size}";
+        if (start != null) {
+            parameters.put("start", start);
+            path += "&start={start}";
+        }
+        if (end != null) {
+            parameters.put("end", end);
+            path += "&end={end}";
+        }
+        return getCached(responseCache, path, parameters);
     }
 
     public ResponseEntity<Object> createComment(Long itemId, long userId, NewCommentRequest newCommentRequest) {
         String path = String.format("/%d/comment", itemId);
-        return post(path, userId, newCommentRequest);
+        ResponseEntity<Object> response = post(path, userId, newCommentRequest);
+        evictItem(itemId);
+        return response;
+    }
+
+    private void evictItem(Long itemId) {
+        responseCache.evict(uri("/" + itemId, null));
+    }
+
+    /**
+     * Новая или измененная вещь может появиться в любой выдаче поиска или пропасть из нее.
+     */
+    private void evictSearches() {
+        responseCache.evictIf(uri -> uri.getPath().endsWith("/search"));
     }
 }
@@ -1,8 +1,17 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -10,7 +19,11 @@ import ru.practicum.shareit.item.dto.NewCommentRequest;
 import ru.practicum.shareit.item.dto.NewItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+
 @RestController
+@Profile("!reactive")
 @RequestMapping(path = "/items")
 @Slf4j
 @RequiredArgsConstructor
@@ -25,6 +38,15 @@ public class ItemController {
         return itemClient.createItem(ownerId, requestDto);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public void importItems(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.info("Importing items as {}, ownerId={}", contentType, ownerId);
+        itemClient.importItems(ownerId, contentType, request.getInputStream(), response);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@PathVariable Long itemId,
                                              @RequestHeader("X-Sharer-User-Id") long ownerId,
@@ -39,14 +61,37 @@ public class ItemController {
         return itemClient.getItem(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@PathVariable Long itemId,
+                                                      @RequestParam(name = "from")
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime from,
+                                                      @RequestParam(name = "to")
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime to) {
+        log.info("Get availability of item with id = {}, from={}, to={}", itemId, from, to);
+        return itemClient.getItemAvailability(itemId, from, to);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getOwnerItems(@RequestHeader("X-Sharer-User-Id") long ownerId) {
         return itemClient.getOwnerItems(ownerId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam(name = "text") String text) {
-        return itemClient.searchItem(text);
+    public ResponseEntity<Object> searchItem(@RequestParam(name = "text") String text,
+                                             @RequestParam(name = "start", required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime start,
+                                             @RequestParam(name = "end", required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime end,
+                                             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+                                             Integer from,
+                                             @Positive @Max(100) @RequestParam(name = "size", defaultValue = "20")
+                                             Integer size) {
+        log.info("Search items by text {}, start={}, end={}, from={}, size={}", text, start, end, from, size);
+        return itemClient.searchItem(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
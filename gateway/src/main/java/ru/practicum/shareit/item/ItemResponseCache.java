@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.client.ResponseCache;
+
+import java.time.Duration;
+
+/**
+ * Ответы на GET /items/{id} и /items/search. Бронирования через шлюз кэш не сбрасывают, поэтому
+ * ttl по умолчанию короткий: он ограничивает, насколько устаревшими могут быть соседние бронирования
+ * в карточке и доступность в поиске по датам.
+ */
+@Component
+@Profile("!reactive")
+public class ItemResponseCache extends ResponseCache {
+
+    public ItemResponseCache(MeterRegistry meterRegistry,
+                             @Value("${shareit.item-cache.ttl:5s}") Duration ttl,
+                             @Value("${shareit.item-cache.max-size:16MB}") DataSize maxSize) {
+        super("gateway.item.responses", meterRegistry, ttl, maxSize);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ServerConnector;
+import ru.practicum.shareit.item.dto.NewCommentRequest;
+import ru.practicum.shareit.item.dto.NewItemDto;
+import ru.practicum.shareit.item.dto.UpdateItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              ServerConnector connector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(connector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(long ownerId, NewItemDto requestDto) {
+        return post("", ownerId, requestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> importItems(long ownerId, MediaType contentType,
+                                                              Flux<DataBuffer> body) {
+        return stream(HttpMethod.POST, "/bulk", ownerId, contentType, body);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(Long itemId, long ownerId,
+                                                             UpdateItemRequest updateItemRequest) {
+        return patch("/" + itemId, ownerId, updateItemRequest);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItem(Long itemId) {
+        return get("/" + itemId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemAvailability(Long itemId, LocalDateTime from,
+                                                                      LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwnerItems(long ownerId) {
+        return get("", ownerId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItem(String text, LocalDateTime start, LocalDateTime end,
+                                                             Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        String path = "/search?text={text}&from={from}&size={size}";
+        if (start != null) {
+            parameters.put("start", start);
+            path += "&start={start}";
+        }
+        if (end != null) {
+            parameters.put("end", end);
+            path += "&end={end}";
+        }
+        return get(path, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(Long itemId, long userId,
+                                                                NewCommentRequest newCommentRequest) {
+        String path = String.format("/%d/comment", itemId);
+        return post(path, userId, newCommentRequest);
+    }
+}
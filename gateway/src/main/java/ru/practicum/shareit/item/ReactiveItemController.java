@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.NewCommentRequest;
+import ru.practicum.shareit.item.dto.NewItemDto;
+import ru.practicum.shareit.item.dto.UpdateItemRequest;
+
+import java.time.LocalDateTime;
+
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/items")
+@Slf4j
+@RequiredArgsConstructor
+@Validated
+public class ReactiveItemController {
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                             @Valid @RequestBody NewItemDto requestDto) {
+        log.info("Creating item {}, ownerId={}", requestDto, ownerId);
+        return itemClient.createItem(ownerId, requestDto);
+    }
+
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> importItems(
+            @RequestHeader("X-Sharer-User-Id") long ownerId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            ServerHttpRequest request) {
+        log.info("Importing items as {}, ownerId={}", contentType, ownerId);
+        return itemClient.importItems(ownerId, contentType, request.getBody());
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(@PathVariable Long itemId,
+                                                             @RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                             @Valid @RequestBody
+                                                             UpdateItemRequest updateItemRequest) {
+        log.info("Updating item with id = {}, ownerId={}", itemId, ownerId);
+        return itemClient.updateItem(itemId, ownerId, updateItemRequest);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItem(@PathVariable Long itemId) {
+        log.info("Get booking with id = {}", itemId);
+        return itemClient.getItem(itemId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get availability of item with id = {}, from={}, to={}", itemId, from, to);
+        return itemClient.getItemAvailability(itemId, from, to);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwnerItems(@RequestHeader("X-Sharer-User-Id") long ownerId) {
+        return itemClient.getOwnerItems(ownerId);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItem(
+            @RequestParam(name = "text") String text,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @Max(100) @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        log.info("Search items by text {}, start={}, end={}, from={}, size={}", text, start, end, from, size);
+        return itemClient.searchItem(text, start, end, from, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(@PathVariable Long itemId,
+                                                                @RequestHeader("X-Sharer-User-Id") long userId,
+                                                                @Valid @RequestBody
+                                                                NewCommentRequest newCommentRequest) {
+        return itemClient.createComment(itemId, userId, newCommentRequest);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.request;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.NewItemRequestDto;
+
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveItemRequestController {
+    private final ReactiveItemRequestClient itemRequestClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                    @RequestBody @Valid
+                                                                    NewItemRequestDto requestDto) {
+        log.info("Creating request {}, userId={}", requestDto, userId);
+        return itemRequestClient.createItemRequest(userId, requestDto);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequestsByRequester(
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get request by userId={}", userId);
+        return itemRequestClient.getItemRequestsByRequester(userId);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOtherUserRequests(
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get all requests by userId={}", userId);
+        return itemRequestClient.getItemRequests(userId);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequestById(@PathVariable Long requestId) {
+        log.info("Get requestId={}", requestId);
+        return itemRequestClient.getItemRequestById(requestId);
+    }
+}
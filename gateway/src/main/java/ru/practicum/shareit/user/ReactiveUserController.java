@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.NewUserRequestDto;
+import ru.practicum.shareit.user.dto.UpdateUserRequestDto;
+
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/users")
+@Slf4j
+@Validated
+@RequiredArgsConstructor
+public class ReactiveUserController {
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(@Valid @RequestBody NewUserRequestDto requestDto) {
+        log.info("Creating user {}", requestDto);
+        return userClient.createUser(requestDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(@PathVariable Long userId,
+                                                             @Valid @RequestBody UpdateUserRequestDto requestDto) {
+        log.info("Updating user with id = {}", userId);
+        return userClient.updateUser(userId, requestDto);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(@PathVariable Long userId) {
+        log.info("Deleting user with id = {}", userId);
+        return userClient.deleteUser(userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllUsers() {
+        log.info("Get all users");
+        return userClient.getAllUsers();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUser(@PathVariable Long id) {
+        log.info("Get user with userId={}", id);
+        return userClient.getUser(id);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.web;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Реактивный стек запускается на Reactor Netty. Tomcat остается в зависимостях ради блокирующего стека,
+ * и без явной фабрики Spring Boot поднял бы WebFlux на нем.
+ */
+@Component
+@Profile("reactive")
+public class NettyServerFactory extends NettyReactiveWebServerFactory {
+}
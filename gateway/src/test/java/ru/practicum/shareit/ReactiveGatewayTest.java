@@ -0,0 +1,224 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Реактивный шлюз перед заглушкой сервера на HttpServer из JDK. Пул держит одно соединение и ждет
+ * его не дольше 300 мс, чтобы переполнение очереди проверялось без нагрузки.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.profiles.active=reactive",
+                "shareit-server.max-connections-per-route=1",
+                "shareit-server.pending-acquire-timeout=300ms"
+        })
+class ReactiveGatewayTest {
+    private static final String NOT_FOUND = "{\"error\":\"Пользователь с id = 404 не найден.\"}";
+    private static final String CONFLICT = "{\"error\":\"Пользователь с таким email уже существует.\"}";
+    private static final String CREATED = "{\"id\":1,\"name\":\"Иван\",\"email\":\"ivan@test.com\"}";
+    private static final String BOOKINGS = "[{\"id\":3},{\"id\":2}]";
+
+    private static final HttpServer SERVER = startServer();
+    private static final AtomicInteger REQUESTS = new AtomicInteger();
+    private static volatile CountDownLatch slowArrived = new CountDownLatch(1);
+    private static volatile CountDownLatch slowReleased = new CountDownLatch(1);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @BeforeEach
+    void resetServer() {
+        REQUESTS.set(0);
+        slowArrived = new CountDownLatch(1);
+        slowReleased = new CountDownLatch(1);
+    }
+
+    @Test
+    void createUser_whenEmailInvalid_thenBadRequestWithoutCallingServer() {
+        webTestClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Иван\",\"email\":\"не email\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(REQUESTS).hasValue(0);
+    }
+
+    @Test
+    void createUser_whenNameMissing_thenBadRequestWithoutCallingServer() {
+        webTestClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\":\"ivan@test.com\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(REQUESTS).hasValue(0);
+    }
+
+    @Test
+    void createUser_whenValid_thenServerResponsePassedThrough() {
+        webTestClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Иван\",\"email\":\"ivan@test.com\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo(CREATED);
+
+        assertThat(REQUESTS).hasValue(1);
+    }
+
+    @Test
+    void getUser_whenServerReturnsNotFound_thenStatusAndBodyPassedThrough() {
+        webTestClient.get()
+                .uri("/users/404")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo(NOT_FOUND);
+    }
+
+    @Test
+    void updateUser_whenServerReturnsConflict_thenStatusAndBodyPassedThrough() {
+        webTestClient.patch()
+                .uri("/users/409")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\":\"taken@test.com\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo(CONFLICT);
+    }
+
+    @Test
+    void getUser_whenServerFails_thenInternalErrorPassedThrough() {
+        webTestClient.get()
+                .uri("/users/500")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+                .expectBody(String.class).isEqualTo("{\"error\":\"Ошибка сервера\"}");
+    }
+
+    @Test
+    void getAllBookingsByUser_whenServerReturnsCursor_thenCursorHeaderPassedThrough() {
+        webTestClient.get()
+                .uri("/bookings?state=ALL&size=2")
+                .header("X-Sharer-User-Id", "5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals("X-Next-Cursor", "cursor-2")
+                .expectBody(String.class).isEqualTo(BOOKINGS);
+
+        assertThat(REQUESTS).hasValue(1);
+    }
+
+    @Test
+    void getUser_whenConnectionNotReleasedInTime_thenServiceUnavailable() throws InterruptedException {
+        Mono<HttpStatus> slow = WebClient.create("http://localhost:" + port).get()
+                .uri("/users/1")
+                .exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(HttpStatus.valueOf(response.statusCode().value())))
+                .cache();
+        slow.subscribe();
+        assertThat(slowArrived.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            webTestClient.get()
+                    .uri("/users/2")
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        } finally {
+            slowReleased.countDown();
+        }
+
+        assertThat(slow.block(Duration.ofSeconds(5))).isEqualTo(HttpStatus.OK);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/users", ReactiveGatewayTest::handle);
+            server.createContext("/bookings", ReactiveGatewayTest::handle);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        REQUESTS.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        switch (exchange.getRequestURI().getPath()) {
+            case "/users" -> respond(exchange, 201, CREATED);
+            case "/bookings" -> {
+                exchange.getResponseHeaders().set("X-Next-Cursor", "cursor-2");
+                respond(exchange, 200, BOOKINGS);
+            }
+            case "/users/404" -> respond(exchange, 404, NOT_FOUND);
+            case "/users/409" -> respond(exchange, 409, CONFLICT);
+            case "/users/500" -> respond(exchange, 500, "{\"error\":\"Ошибка сервера\"}");
+            case "/users/1" -> {
+                slowArrived.countDown();
+                try {
+                    slowReleased.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, 200, "{\"id\":1}");
+            }
+            default -> respond(exchange, 200, "{}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
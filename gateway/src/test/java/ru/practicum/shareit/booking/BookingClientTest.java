@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.ServerRequestFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BookingClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private MockRestServiceServer server;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void getAllBookingsByUser_whenServerReturnsCursor_thenCursorHeaderPassedThrough(boolean passthrough) {
+        BookingClient client = client(passthrough);
+        server.expect(requestTo(SERVER_URL + "/bookings?state=ALL&size=2"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "5"))
+                .andRespond(withSuccess("[{\"id\":3},{\"id\":2}]", MediaType.APPLICATION_JSON)
+                        .header(NEXT_CURSOR, "cursor-2"));
+
+        ResponseEntity<Object> response = client.getAllBookingsByUser(5L, BookingState.ALL, null, 2);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(NEXT_CURSOR)).isEqualTo("cursor-2");
+        server.verify();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void getAllBookingsByItemByUserId_whenCursorGiven_thenCursorSentAndNextCursorPassedThrough(boolean passthrough) {
+        BookingClient client = client(passthrough);
+        server.expect(requestTo(SERVER_URL + "/bookings/owner?state=FUTURE&size=2&cursor=cursor-2"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON)
+                        .header(NEXT_CURSOR, "cursor-3"));
+
+        ResponseEntity<Object> response = client.getAllBookingsByItemByUserId(5L, BookingState.FUTURE,
+                "cursor-2", 2);
+
+        assertThat(response.getHeaders().getFirst(NEXT_CURSOR)).isEqualTo("cursor-3");
+        server.verify();
+    }
+
+    @Test
+    void getAllBookingsByUser_whenNoSizeAndNoCursor_thenServerAskedForWholeList() {
+        BookingClient client = client(false);
+        server.expect(requestTo(SERVER_URL + "/bookings?state=WAITING"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.getAllBookingsByUser(5L, BookingState.WAITING, null, null);
+
+        assertThat(response.getHeaders()).doesNotContainKey(NEXT_CURSOR);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        server.verify();
+    }
+
+    private BookingClient client(boolean passthrough) {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        BookingClient client = new BookingClient(SERVER_URL, new RestTemplateBuilder(customizer),
+                mock(ServerRequestFactory.class), passthrough);
+        server = customizer.getServer();
+        return client;
+    }
+}
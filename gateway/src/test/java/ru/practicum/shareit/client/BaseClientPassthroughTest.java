@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Режим passthrough против заглушки сервера на HttpServer из JDK. Пул держит одно соединение, и занятость
+ * пула читается из его метрик: соединение должно вернуться в пул при закрытии потока тела.
+ */
+class BaseClientPassthroughTest {
+    private static final String USER = "{\"id\":1,\"name\":\"Иван\",\"email\":\"ivan@test.com\"}";
+    private static final String NOT_FOUND = "{\"error\":\"Пользователь с id = 404 не найден.\"}";
+
+    private HttpServer server;
+    private MeterRegistry meterRegistry;
+    private ServerRequestFactory requestFactory;
+    private UserClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", BaseClientPassthroughTest::handle);
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        requestFactory = new ServerRequestFactory(meterRegistry, 1, 1, Duration.ofSeconds(30),
+                Duration.ofSeconds(60), false);
+        client = new UserClient("http://localhost:" + server.getAddress().getPort(), new RestTemplateBuilder(),
+                requestFactory, true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        requestFactory.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void getUser_whenOk_thenStatusHeadersAndBodyPassedThroughAndConnectionReleasedOnClose() throws IOException {
+        ResponseEntity<Object> response = client.getUser(1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getFirst("X-Total-Count")).isEqualTo("1");
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=5");
+        assertThat(response.getHeaders().containsKey("Transfer-Encoding")).isFalse();
+        assertThat(leasedConnections()).isEqualTo(1);
+
+        assertThat(readAndClose(response)).isEqualTo(USER);
+        assertThat(leasedConnections()).isZero();
+    }
+
+    @Test
+    void getUser_whenServerReturnsError_thenErrorPassedThroughAndConnectionReleasedOnClose() throws IOException {
+        ResponseEntity<Object> response = client.getUser(404L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(leasedConnections()).isEqualTo(1);
+
+        assertThat(readAndClose(response)).isEqualTo(NOT_FOUND);
+        assertThat(leasedConnections()).isZero();
+    }
+
+    @Test
+    void deleteUser_whenBodyEmpty_thenStatusPassedThroughAndConnectionReleasedOnClose() throws IOException {
+        ResponseEntity<Object> response = client.deleteUser(1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(readAndClose(response)).isEmpty();
+        assertThat(leasedConnections()).isZero();
+    }
+
+    @Test
+    void getUser_whenBodyClosedBeforeFullyRead_thenConnectionReleased() throws IOException {
+        ResponseEntity<Object> response = client.getUser(1L);
+
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            assertThat(body.read()).isEqualTo('{');
+        }
+
+        assertThat(leasedConnections()).isZero();
+        assertThat(readAndClose(client.getUser(1L))).isEqualTo(USER);
+    }
+
+    @Test
+    void getUser_whenPreviousBodyClosed_thenSingleConnectionReused() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            assertThat(readAndClose(client.getUser(1L))).isEqualTo(USER);
+            assertThat(readAndClose(client.getUser(404L))).isEqualTo(NOT_FOUND);
+            assertThat(readAndClose(client.deleteUser(1L))).isEmpty();
+        }
+
+        assertThat(leasedConnections()).isZero();
+        assertThat(availableConnections()).isEqualTo(1);
+    }
+
+    private static String readAndClose(ResponseEntity<Object> response) throws IOException {
+        assertThat(response.getBody()).isInstanceOf(InputStreamResource.class);
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private double leasedConnections() {
+        return poolConnections("leased");
+    }
+
+    private double availableConnections() {
+        return poolConnections("available");
+    }
+
+    private double poolConnections(String state) {
+        return meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", state)
+                .gauge()
+                .value();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        String path = exchange.getRequestURI().getPath();
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(HttpStatus.NO_CONTENT.value(), -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+        if ("/users/404".equals(path)) {
+            respond(exchange, HttpStatus.NOT_FOUND, NOT_FOUND);
+            return;
+        }
+        exchange.getResponseHeaders().set("X-Total-Count", "1");
+        exchange.getResponseHeaders().set("Cache-Control", "max-age=5");
+        respond(exchange, HttpStatus.OK, USER);
+    }
+
+    /**
+     * Тело уходит кусками (Transfer-Encoding: chunked), чтобы проверить, что заголовок соединения
+     * не передается клиенту шлюза.
+     */
+    private static void respond(HttpExchange exchange, HttpStatus status, String body) throws IOException {
+        exchange.sendResponseHeaders(status.value(), 0);
+        exchange.getResponseBody().write(body.getBytes(StandardCharsets.UTF_8));
+        exchange.close();
+    }
+}
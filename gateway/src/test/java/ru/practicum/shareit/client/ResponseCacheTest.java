@@ -0,0 +1,156 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+    private static final Duration TTL = Duration.ofSeconds(5);
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+    private static final URI OTHER_ITEM = URI.create("http://localhost:9090/items/2");
+    private static final URI SEARCH = URI.create("http://localhost:9090/items/search?text=drill&from=0&size=10");
+    private static final String BODY = "{\"id\":1,\"name\":\"Дрель\"}";
+
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache("test.responses", new SimpleMeterRegistry(), TTL, DataSize.ofMegabytes(1)) {
+        };
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "max-age=60; 60",
+            "Max-Age=60; 60",
+            "public, max-age=60; 60",
+            "s-maxage=10; 10",
+            "max-age=60, s-maxage=10; 10",
+            "s-maxage=10, max-age=60; 10",
+            "max-age=0; 0",
+            "max-age=-5; 0",
+            "max-age=abc; 0",
+            "no-store; 0",
+            "no-cache; 0",
+            "private; 0",
+            "private, max-age=60; 0",
+            "max-age=60, no-store; 0",
+            "public; 5",
+            "must-revalidate; 5"
+    })
+    void lifetime_thenTakenFromCacheControl(String cacheControl, long seconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(cacheControl);
+
+        assertThat(cache.lifetime(headers)).isEqualTo(Duration.ofSeconds(seconds));
+    }
+
+    @Test
+    void lifetime_whenNoCacheControl_thenTtl() {
+        assertThat(cache.lifetime(new HttpHeaders())).isEqualTo(TTL);
+    }
+
+    @Test
+    void put_whenOk_thenServedWithEndToEndHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+
+        cache.put(ITEM, ResponseEntity.ok().headers(headers).body(bytes(BODY)), cache.stamp());
+
+        ResponseEntity<Object> cached = cache.get(ITEM);
+        assertThat(cached).isNotNull();
+        assertThat(cached.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(cached.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(cached.getHeaders()).doesNotContainKeys(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION);
+        assertThat(new String((byte[]) cached.getBody(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    void put_whenStatusNotOk_thenNotStored() {
+        long stamp = cache.stamp();
+
+        cache.put(ITEM, ResponseEntity.status(HttpStatus.NOT_FOUND).body(bytes("{\"error\":\"нет\"}")), stamp);
+        cache.put(OTHER_ITEM, ResponseEntity.status(HttpStatus.CREATED).body(bytes(BODY)), stamp);
+        cache.put(SEARCH, ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(bytes("{}")), stamp);
+
+        assertThat(cache.get(ITEM)).isNull();
+        assertThat(cache.get(OTHER_ITEM)).isNull();
+        assertThat(cache.get(SEARCH)).isNull();
+    }
+
+    @Test
+    void put_whenBodyMissing_thenNotStored() {
+        cache.put(ITEM, ResponseEntity.ok().build(), cache.stamp());
+
+        assertThat(cache.get(ITEM)).isNull();
+    }
+
+    @Test
+    void put_whenNoStore_thenNotStored() {
+        cache.put(ITEM, ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-store").body(bytes(BODY)),
+                cache.stamp());
+
+        assertThat(cache.get(ITEM)).isNull();
+    }
+
+    @Test
+    void put_whenEvictedAfterStampTaken_thenStaleResponseNotStored() {
+        long stamp = cache.stamp();
+        cache.evict(ITEM);
+
+        cache.put(ITEM, ResponseEntity.ok().body(bytes(BODY)), stamp);
+
+        assertThat(cache.get(ITEM)).isNull();
+    }
+
+    @Test
+    void put_whenOtherKeyEvictedAfterStampTaken_thenResponseStillDropped() {
+        long stamp = cache.stamp();
+        cache.evictIf(uri -> uri.getPath().endsWith("/search"));
+
+        cache.put(ITEM, ResponseEntity.ok().body(bytes(BODY)), stamp);
+
+        assertThat(cache.get(ITEM)).isNull();
+    }
+
+    @Test
+    void put_whenStampTakenAfterEviction_thenStored() {
+        cache.evict(ITEM);
+        long stamp = cache.stamp();
+
+        cache.put(ITEM, ResponseEntity.ok().body(bytes(BODY)), stamp);
+
+        assertThat(cache.get(ITEM)).isNotNull();
+    }
+
+    @Test
+    void evictIf_thenOnlyMatchingRemoved() {
+        long stamp = cache.stamp();
+        cache.put(ITEM, ResponseEntity.ok().body(bytes(BODY)), stamp);
+        cache.put(SEARCH, ResponseEntity.ok().body(bytes("[]")), stamp);
+
+        cache.evictIf(uri -> uri.getPath().endsWith("/search"));
+
+        assertThat(cache.get(ITEM)).isNotNull();
+        assertThat(cache.get(SEARCH)).isNull();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
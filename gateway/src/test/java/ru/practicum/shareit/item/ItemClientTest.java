@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.client.ServerRequestFactory;
+import ru.practicum.shareit.item.dto.NewCommentRequest;
+import ru.practicum.shareit.item.dto.NewItemDto;
+import ru.practicum.shareit.item.dto.UpdateItemRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Сброс кэша ответов после изменений через шлюз. Каждое обращение к серверу описано ожиданием
+ * MockRestServiceServer по порядку: ответ из кэша ожидания не расходует, лишний запрос к серверу
+ * роняет тест.
+ */
+class ItemClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+    private static final String ITEM_1 = SERVER_URL + "/items/1";
+    private static final String ITEM_2 = SERVER_URL + "/items/2";
+    private static final String SEARCH = SERVER_URL + "/items/search?";
+
+    private MockRestServiceServer server;
+    private ItemClient client;
+
+    @BeforeEach
+    void setUp() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        ItemResponseCache cache = new ItemResponseCache(new SimpleMeterRegistry(), Duration.ofMinutes(1),
+                DataSize.ofMegabytes(1));
+        client = new ItemClient(SERVER_URL, new RestTemplateBuilder(customizer), mock(ServerRequestFactory.class),
+                false, cache);
+        server = customizer.getServer();
+    }
+
+    @Test
+    void updateItem_thenItemAndSearchesEvictedOtherItemsKept() {
+        expectGet(ITEM_1, "{\"id\":1,\"name\":\"Дрель\"}");
+        expectGet(ITEM_2, "{\"id\":2,\"name\":\"Пила\"}");
+        expectSearch("[{\"id\":1,\"name\":\"Дрель\"}]");
+        server.expect(requestTo(ITEM_1))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{\"id\":1,\"name\":\"Перфоратор\"}", MediaType.APPLICATION_JSON));
+        expectGet(ITEM_1, "{\"id\":1,\"name\":\"Перфоратор\"}");
+        expectSearch("[{\"id\":1,\"name\":\"Перфоратор\"}]");
+
+        assertThat(body(client.getItem(1L))).contains("Дрель");
+        assertThat(body(client.getItem(2L))).contains("Пила");
+        assertThat(body(search())).contains("Дрель");
+        assertThat(body(client.getItem(1L))).contains("Дрель");
+        assertThat(body(search())).contains("Дрель");
+
+        client.updateItem(1L, 10L, new UpdateItemRequest("Перфоратор", null, null));
+
+        assertThat(body(client.getItem(1L))).contains("Перфоратор");
+        assertThat(body(client.getItem(2L))).contains("Пила");
+        assertThat(body(search())).contains("Перфоратор");
+        server.verify();
+    }
+
+    @Test
+    void createItem_thenSearchesEvictedItemsKept() {
+        expectGet(ITEM_1, "{\"id\":1,\"name\":\"Дрель\"}");
+        expectSearch("[{\"id\":1,\"name\":\"Дрель\"}]");
+        server.expect(requestTo(SERVER_URL + "/items"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":3,\"name\":\"Дрель аккумуляторная\"}", MediaType.APPLICATION_JSON));
+        expectSearch("[{\"id\":1,\"name\":\"Дрель\"},{\"id\":3,\"name\":\"Дрель аккумуляторная\"}]");
+
+        client.getItem(1L);
+        search();
+
+        client.createItem(10L, new NewItemDto("Дрель аккумуляторная", "С запасным аккумулятором", true, null));
+
+        assertThat(body(client.getItem(1L))).contains("Дрель");
+        assertThat(body(search())).contains("аккумуляторная");
+        server.verify();
+    }
+
+    @Test
+    void createComment_thenItemEvictedSearchesKept() {
+        expectGet(ITEM_1, "{\"id\":1,\"comments\":[]}");
+        expectSearch("[{\"id\":1,\"name\":\"Дрель\"}]");
+        server.expect(requestTo(ITEM_1 + "/comment"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":7,\"text\":\"Отлично\"}", MediaType.APPLICATION_JSON));
+        expectGet(ITEM_1, "{\"id\":1,\"comments\":[{\"id\":7,\"text\":\"Отлично\"}]}");
+
+        client.getItem(1L);
+        search();
+
+        client.createComment(1L, 20L, new NewCommentRequest("Отлично", null));
+
+        assertThat(body(client.getItem(1L))).contains("Отлично");
+        assertThat(body(search())).contains("Дрель");
+        server.verify();
+    }
+
+    private void expectGet(String url, String body) {
+        server.expect(requestTo(url))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+    }
+
+    private void expectSearch(String body) {
+        server.expect(requestTo(startsWith(SEARCH)))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+    }
+
+    private ResponseEntity<Object> search() {
+        return client.searchItem("дрель", null, null, 0, 10);
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,6 +33,13 @@ public class Booking {
     @JoinColumn(name = "item_id")
     private Item item;
 
+    /**
+     * Копия items.owner_id: страницы владельца читаются по индексу (owner_id, start_date, id)
+     * без объединения бронирований всех его вещей.
+     */
+    @Column(name = "owner_id", updatable = false)
+    private Long ownerId;
+
     @Column(name = "start_date")
     private LocalDateTime start;
 
@@ -40,4 +48,14 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    @Version
+    private Long version;
+
+    @PrePersist
+    void copyOwnerId() {
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
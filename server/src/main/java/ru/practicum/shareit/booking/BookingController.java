@@ -2,10 +2,13 @@ package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.service.BookingCommandDispatcher;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.Collection;
@@ -17,12 +20,16 @@ import java.util.Collection;
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final BookingCommandDispatcher bookingCommandDispatcher;
 
     @PostMapping
     public BookingDto createBooking(@Valid @RequestBody NewBookingRequest newBooking,
                                     @RequestHeader("X-Sharer-User-Id") Long bookerId) {
-        return bookingService.createBooking(newBooking, bookerId);
+        return bookingCommandDispatcher.execute(newBooking.getItemId(),
+                () -> bookingService.createBooking(newBooking, bookerId));
     }
 
     @PatchMapping("/{bookingId}")
@@ -39,14 +46,28 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingDto> getAllBookingsByUser(@RequestParam(required = false) BookingStatus status,
-                                                       @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return bookingService.getAllBookingsByUser(status, userId);
+    public ResponseEntity<Collection<BookingDto>> getAllBookingsByUser(
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return toResponse(bookingService.getAllBookingsByUser(state, userId, cursor, size));
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDto> getAllBookingsByItemByUserId(@RequestParam(required = false) BookingStatus state,
-                                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return bookingService.getAllBookingsByItemByUserId(state, userId);
+    public ResponseEntity<Collection<BookingDto>> getAllBookingsByItemByUserId(
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return toResponse(bookingService.getAllBookingsByItemByUserId(state, userId, cursor, size));
+    }
+
+    private ResponseEntity<Collection<BookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
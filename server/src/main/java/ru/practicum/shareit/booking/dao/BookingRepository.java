@@ -1,14 +1,52 @@
 package ru.practicum.shareit.booking.dao;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String SELECT_BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, b.status, bk.id, bk.name, bk.email, " +
+            "i.id, i.name, i.description, i.available) " +
+            "from Booking as b " +
+            "join b.booker as bk " +
+            "join b.item as i ";
+
+    @Override
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Optional<Booking> findById(Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.status = ?2, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.status = 'WAITING'")
+    int updateStatusIfWaiting(Long bookingId, BookingStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.id from Booking as b " +
+            "where b.item.id = ?1 and b.status = 'WAITING' and b.id <> ?2 " +
+            "and b.start < ?4 and b.end > ?3 " +
+            "order by b.id")
+    List<Long> findOverlappingWaitingIds(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.status = 'REJECTED', b.version = b.version + 1 " +
+            "where b.id in ?1 and b.status = 'WAITING'")
+    int rejectWaitingByIds(Collection<Long> bookingIds);
 
     @Query("select count(b)>0 " +
             "from Booking as b " +
@@ -18,23 +56,168 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "b.start<?3 and b.end>?2")
     boolean existsApprovedBookingInPeriod(Long itemId, LocalDateTime start, LocalDateTime end);
 
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingPeriod(b.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.item.id = ?1 and b.status = 'APPROVED' " +
+            "order by b.start")
+    List<BookingPeriod> findApprovedPeriodsByItemId(Long itemId);
 
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
+    @Query("select distinct b.item.id " +
+            "from Booking as b " +
+            "where b.item.id in ?1 and b.status = 'APPROVED' " +
+            "and b.start < ?3 and b.end > ?2")
+    List<Long> findItemIdsWithApprovedBookingInPeriod(Collection<Long> itemIds, LocalDateTime start,
+                                                      LocalDateTime end);
 
-    @Query("select b from Booking as b " +
-            "join b.item as i " +
-            "where i.owner.id = ?1 and b.status = ?2 " +
-            "order by b.start desc")
-    List<Booking> findAllBookingsByItemByUserIdAndStatus(Long userId, BookingStatus status);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingPeriod(b.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.item.id = ?1 and b.status = 'APPROVED' " +
+            "and b.start < ?3 and b.end > ?2 " +
+            "order by b.start")
+    List<BookingPeriod> findApprovedPeriodsInWindow(Long itemId, LocalDateTime from, LocalDateTime to);
 
-    @Query("select b from Booking as b " +
-            "join b.item as i " +
-            "where i.owner.id = ?1 " +
-            "order by b.start desc")
-    List<Booking> findAllBookingsByItemByUserId(Long userId);
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPageByBookerId(Long bookerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFirstPageByBookerId(Long bookerId, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 and b.start <= ?2 and b.end > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findCurrentPageByBookerId(Long bookerId, LocalDateTime now,
+                                               LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 and b.start <= ?2 and b.end > ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findCurrentFirstPageByBookerId(Long bookerId, LocalDateTime now, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 and b.end < ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPastPageByBookerId(Long bookerId, LocalDateTime now,
+                                            LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 and b.end < ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPastFirstPageByBookerId(Long bookerId, LocalDateTime now, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 and b.start > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFuturePageByBookerId(Long bookerId, LocalDateTime now,
+                                              LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 and b.start > ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFutureFirstPageByBookerId(Long bookerId, LocalDateTime now, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 and b.status = ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPageByBookerIdAndStatus(Long bookerId, BookingStatus status,
+                                                 LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where bk.id = ?1 and b.status = ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFirstPageByBookerIdAndStatus(Long bookerId, BookingStatus status, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPageByOwnerId(Long ownerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFirstPageByOwnerId(Long ownerId, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 and b.start <= ?2 and b.end > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findCurrentPageByOwnerId(Long ownerId, LocalDateTime now,
+                                              LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 and b.start <= ?2 and b.end > ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findCurrentFirstPageByOwnerId(Long ownerId, LocalDateTime now, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 and b.end < ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPastPageByOwnerId(Long ownerId, LocalDateTime now,
+                                           LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 and b.end < ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPastFirstPageByOwnerId(Long ownerId, LocalDateTime now, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 and b.start > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFuturePageByOwnerId(Long ownerId, LocalDateTime now,
+                                             LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 and b.start > ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFutureFirstPageByOwnerId(Long ownerId, LocalDateTime now, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 and b.status = ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPageByOwnerIdAndStatus(Long ownerId, BookingStatus status,
+                                                LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 and b.status = ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFirstPageByOwnerIdAndStatus(Long ownerId, BookingStatus status, Limit limit);
+
+    @Query(value = "select last_booking.id from (" +
+            "select b.id, row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED' and b.end_date < ?2" +
+            ") as last_booking where last_booking.rn = 1 " +
+            "union all " +
+            "select next_booking.id from (" +
+            "select b.id, row_number() over (partition by b.item_id order by b.start_date, b.id) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED' and b.start_date > ?3" +
+            ") as next_booking where next_booking.rn = 1 " +
+            "union all " +
+            "select current_booking.id from (" +
+            "select b.id, row_number() over (partition by b.item_id order by b.end_date, b.id) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED' and b.start_date <= ?3 and b.end_date >= ?2" +
+            ") as current_booking where current_booking.rn = 1",
+            nativeQuery = true)
+    List<Long> findLastCurrentAndNextApprovedBookingIds(Collection<Long> itemIds, LocalDateTime lastBefore,
+                                                        LocalDateTime nextAfter);
 
-    List<Booking> findByItemId(Long itemId);
+    @Query(SELECT_BOOKING_DTO +
+            "where b.id in ?1")
+    List<BookingDto> findBookingDtosByIdIn(Collection<Long> ids);
 
     @Query("select b from Booking as b " +
             "where b.booker.id = ?1 " +
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * TODO Sprint add-bookings.
@@ -23,4 +25,22 @@ public class BookingDto {
     private LocalDateTime start;
     private LocalDateTime end;
     private BookingStatus status;
+
+    /**
+     * Ожидавшие решения бронирования той же вещи, отклоненные при одобрении этого из-за пересечения.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<Long> rejectedBookingIds;
+
+    /**
+     * Конструктор для JPQL-проекций: собирает DTO из плоского набора колонок без загрузки сущностей.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long bookerId, String bookerName, String bookerEmail,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable) {
+        this(id,
+                UserDto.builder().id(bookerId).name(bookerName).email(bookerEmail).build(),
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable),
+                start, end, status, null);
+    }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Период бронирования без связанных сущностей.
+ */
+@Data
+@AllArgsConstructor
+public class BookingPeriod {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
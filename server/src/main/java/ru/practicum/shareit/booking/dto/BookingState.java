@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+public enum BookingState {
+    ALL,        //все бронирования
+    CURRENT,    //текущие: уже начались, но еще не закончились
+    FUTURE,     //будущие: еще не начались
+    PAST,       //завершенные
+    REJECTED,   //отклоненные владельцем
+    WAITING     //ожидающие подтверждения
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Одобренные бронирования по вещам в памяти процесса. Периоды вещи хранятся в массивах,
+ * отсортированных по началу, вместе с префиксным максимумом окончаний, поэтому проверка
+ * пересечения занимает O(log n). Вещь загружается из базы при первом обращении, дальше
+ * индекс обновляется событиями после фиксации транзакций. Число вещей в памяти ограничено,
+ * редко проверяемые вытесняются и при следующей проверке загружаются заново.
+ */
+@Component
+public class ApprovedBookingIndex {
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemIntervals> intervals;
+    private final AtomicLong changes = new AtomicLong();
+
+    public ApprovedBookingIndex(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                                @Value("${shareit.approved-index.max-items:10000}") long maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.intervals = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, intervals, "booking.approved.index");
+    }
+
+    /**
+     * Индекс может ошибиться только в сторону свободного периода: бронирование, одобренное
+     * в другой транзакции, появится после ее фиксации. Поэтому ответ false нужно подтверждать в базе.
+     */
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return load(itemId).overlaps(toMicros(start), toMicros(end));
+    }
+
+    /**
+     * Созданное бронирование публикуется уже после групповой фиксации, вне транзакции,
+     * поэтому такое событие применяется сразу.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        changes.incrementAndGet();
+        BookingDto booking = event.getBooking();
+        intervals.asMap().computeIfPresent(booking.getItem().getId(), (itemId, current) ->
+                booking.getStatus() == BookingStatus.APPROVED
+                        ? current.with(booking.getId(), toMicros(booking.getStart()), toMicros(booking.getEnd()))
+                        : current.without(booking.getId()));
+    }
+
+    /**
+     * Загрузка идет вне get с загрузчиком: он держит synchronized, и запрос к базе внутри закреплял бы
+     * виртуальный поток за несущим. Если за время загрузки пришло событие, которое не к чему было
+     * применить, загруженные периоды не сохраняются, и следующая проверка загрузит их заново.
+     */
+    private ItemIntervals load(Long itemId) {
+        ItemIntervals current = intervals.getIfPresent(itemId);
+        if (current != null) {
+            return current;
+        }
+        long stamp = changes.get();
+        ItemIntervals loaded = ItemIntervals.of(bookingRepository.findApprovedPeriodsByItemId(itemId));
+        ItemIntervals previous = intervals.asMap().putIfAbsent(itemId, loaded);
+        if (previous != null) {
+            return previous;
+        }
+        if (changes.get() != stamp) {
+            intervals.asMap().remove(itemId, loaded);
+        }
+        return loaded;
+    }
+
+    long size() {
+        intervals.cleanUp();
+        return intervals.estimatedSize();
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static final class ItemIntervals {
+        private static final ItemIntervals EMPTY = new ItemIntervals(new long[0], new long[0], new long[0]);
+
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private ItemIntervals(long[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        /**
+         * Периоды должны быть отсортированы по началу, как их возвращает findApprovedPeriodsByItemId.
+         */
+        static ItemIntervals of(List<BookingPeriod> periods) {
+            if (periods.isEmpty()) {
+                return EMPTY;
+            }
+            long[] ids = new long[periods.size()];
+            long[] starts = new long[periods.size()];
+            long[] ends = new long[periods.size()];
+            for (int i = 0; i < periods.size(); i++) {
+                BookingPeriod period = periods.get(i);
+                ids[i] = period.getId();
+                starts[i] = toMicros(period.getStart());
+                ends[i] = toMicros(period.getEnd());
+            }
+            return new ItemIntervals(ids, starts, ends);
+        }
+
+        boolean overlaps(long start, long end) {
+            int before = firstStartNotBefore(end);
+            return before > 0 && maxEnds[before - 1] > start;
+        }
+
+        ItemIntervals with(long id, long start, long end) {
+            ItemIntervals base = without(id);
+            int index = base.firstStartNotBefore(start);
+            return new ItemIntervals(insert(base.ids, index, id), insert(base.starts, index, start),
+                    insert(base.ends, index, end));
+        }
+
+        ItemIntervals without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return new ItemIntervals(delete(ids, i), delete(starts, i), delete(ends, i));
+                }
+            }
+            return this;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        private int firstStartNotBefore(long time) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static long[] insert(long[] values, int index, long value) {
+            long[] result = Arrays.copyOf(values, values.length + 1);
+            System.arraycopy(values, index, result, index + 1, values.length - index);
+            result[index] = value;
+            return result;
+        }
+
+        private static long[] delete(long[] values, int index) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, index);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+/**
+ * Публикуется при создании бронирования и смене его статуса. Слушатели получают его после фиксации транзакции.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BookingChangedEvent {
+    private final BookingDto booking;
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет команды бронирования одной вещи строго по очереди, а команды разных вещей параллельно.
+ * У каждой вещи с необработанными командами есть почтовый ящик. Его разбирает одна виртуальная нить,
+ * поэтому проверки пересечения и вставки по одной вещи не конкурируют за строки и индексы в базе.
+ * Опустевший ящик удаляется.
+ */
+@Component
+public class BookingCommandDispatcher {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer waitTimer;
+
+    public BookingCommandDispatcher(MeterRegistry meterRegistry) {
+        Gauge.builder("shareit.booking.dispatcher.queue.depth", queued, AtomicInteger::get)
+                .description("Команды бронирования, ожидающие выполнения")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.dispatcher.mailboxes", mailboxes, Map::size)
+                .description("Вещи с необработанными командами бронирования")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("shareit.booking.dispatcher.wait")
+                .description("Время от постановки команды в очередь вещи до начала ее выполнения")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит команду в очередь вещи и ждет результата. Исключение команды пробрасывается вызывающему как есть.
+     */
+    public <T> T execute(Long itemId, Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        Runnable task = () -> {
+            waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            try {
+                result.complete(command.get());
+            } catch (Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        };
+        queued.incrementAndGet();
+        mailboxes.compute(itemId, (id, mailbox) -> {
+            Mailbox target = mailbox != null ? mailbox : new Mailbox();
+            target.tasks.add(task);
+            if (!target.running) {
+                target.running = true;
+                executor.execute(() -> drain(id, target));
+            }
+            return target;
+        });
+
+        try {
+            return result.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private void drain(Long itemId, Mailbox mailbox) {
+        while (true) {
+            Runnable task = mailbox.tasks.poll();
+            if (task == null) {
+                if (mailboxes.compute(itemId, (id, current) -> release(mailbox)) == null) {
+                    return;
+                }
+                continue;
+            }
+            queued.decrementAndGet();
+            task.run();
+        }
+    }
+
+    /**
+     * Вызывается под блокировкой ключа: ящик удаляется, только если после проверки в него ничего не добавили.
+     */
+    private static Mailbox release(Mailbox mailbox) {
+        if (mailbox.tasks.isEmpty()) {
+            mailbox.running = false;
+            return null;
+        }
+        return mailbox;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+
+    private static final class Mailbox {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private boolean running;
+    }
+}
@@ -1,11 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
-import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 
-import java.util.Collection;
-
 public interface BookingService {
     BookingDto createBooking(NewBookingRequest newBooking, Long bookerId);
 
@@ -13,7 +12,7 @@ public interface BookingService {
 
     BookingDto getBooking(Long bookingId, Long userId);
 
-    Collection<BookingDto> getAllBookingsByUser(BookingStatus status, Long bookerId);
+    BookingPage getAllBookingsByUser(BookingState state, Long bookerId, String cursor, Integer size);
 
-    Collection<BookingDto> getAllBookingsByItemByUserId(BookingStatus status, Long userId);
+    BookingPage getAllBookingsByItemByUserId(BookingState state, Long userId, String cursor, Integer size);
 }
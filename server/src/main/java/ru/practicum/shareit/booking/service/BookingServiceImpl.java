@@ -2,37 +2,57 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.IntegrityViolations;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.persistence.GroupCommitWriter;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserBloomFilter;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @Slf4j
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserBloomFilter userBloomFilter;
     private final ItemRepository itemRepository;
+    private final ApprovedBookingIndex approvedBookingIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GroupCommitWriter groupCommitWriter;
 
+    /**
+     * Без внешней транзакции проверки идут короткими чтениями, а вставка уходит в групповую запись,
+     * поэтому соединение не занято на время ожидания фиксации. Проверки и вставки по одной вещи
+     * не перемешиваются, так как контроллер выполняет их через BookingCommandDispatcher.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingDto createBooking(NewBookingRequest newBooking, Long bookerId) {
         User booker = validateUser(bookerId);
         Item item = validateItem(newBooking.getItemId());
@@ -46,9 +66,11 @@ public class BookingServiceImpl implements BookingService {
                 .end(newBooking.getEnd())
                 .status(BookingStatus.WAITING)
                 .build();
-        Booking createdBooking = bookingRepository.save(booking);
+        Booking createdBooking = groupCommitWriter.insert(booking, this::recheckBooking);
+        BookingDto createdBookingDto = BookingMapper.mapToBookingDto(createdBooking);
+        eventPublisher.publishEvent(new BookingChangedEvent(createdBookingDto));
 
-        return BookingMapper.mapToBookingDto(createdBooking);
+        return createdBookingDto;
     }
 
     @Override
@@ -61,10 +83,19 @@ public class BookingServiceImpl implements BookingService {
         }
         validateUser(ownerId);
         BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
-        booking.setStatus(newStatus);
-        Booking updatedBooking = bookingRepository.save(booking);
+        if (newStatus == BookingStatus.APPROVED) {
+            lockItemForApproval(booking.getItem().getId());
+            validateApprovalPeriod(booking);
+        }
+        updateStatusIfWaiting(booking, newStatus);
+        BookingDto updatedBookingDto = BookingMapper.mapToBookingDto(booking);
+        updatedBookingDto.setStatus(newStatus);
+        if (newStatus == BookingStatus.APPROVED) {
+            updatedBookingDto.setRejectedBookingIds(rejectOverlappingWaiting(booking));
+        }
+        eventPublisher.publishEvent(new BookingChangedEvent(updatedBookingDto));
 
-        return BookingMapper.mapToBookingDto(updatedBooking);
+        return updatedBookingDto;
     }
 
     @Override
@@ -81,35 +112,122 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Collection<BookingDto> getAllBookingsByUser(BookingStatus status, Long bookerId) {
+    public BookingPage getAllBookingsByUser(BookingState state, Long bookerId, String cursor, Integer size) {
         validateUser(bookerId);
-        List<Booking> bookings;
+        BookingCursor after = BookingCursor.decode(cursor);
+        Integer pageSize = pageSize(cursor, size);
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = pageSize == null ? Limit.unlimited() : Limit.of(pageSize + 1);
 
-        if (status == null) {
-            bookings = bookingRepository.findByBookerIdOrderByStartDesc(bookerId);
-        } else {
-            bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId, status);
-        }
+        List<BookingDto> bookings = after == null
+                ? findFirstBookerPage(state, bookerId, now, limit)
+                : findBookerPageAfter(state, bookerId, now, after, limit);
 
-        return bookings.stream()
-                .map(BookingMapper::mapToBookingDto)
-                .collect(Collectors.toList());
+        return toBookingPage(bookings, pageSize);
     }
 
     @Override
-    public Collection<BookingDto> getAllBookingsByItemByUserId(BookingStatus status, Long userId) {
+    public BookingPage getAllBookingsByItemByUserId(BookingState state, Long userId, String cursor, Integer size) {
         validateUser(userId);
-        List<Booking> bookings;
+        BookingCursor after = BookingCursor.decode(cursor);
+        Integer pageSize = pageSize(cursor, size);
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = pageSize == null ? Limit.unlimited() : Limit.of(pageSize + 1);
+
+        List<BookingDto> bookings = after == null
+                ? findFirstOwnerPage(state, userId, now, limit)
+                : findOwnerPageAfter(state, userId, now, after, limit);
+
+        return toBookingPage(bookings, pageSize);
+    }
+
+    private List<BookingDto> findFirstBookerPage(BookingState state, Long bookerId, LocalDateTime now, Limit limit) {
+        return switch (state) {
+            case ALL -> bookingRepository.findFirstPageByBookerId(bookerId, limit);
+            case CURRENT -> bookingRepository.findCurrentFirstPageByBookerId(bookerId, now, limit);
+            case PAST -> bookingRepository.findPastFirstPageByBookerId(bookerId, now, limit);
+            case FUTURE -> bookingRepository.findFutureFirstPageByBookerId(bookerId, now, limit);
+            case WAITING -> bookingRepository.findFirstPageByBookerIdAndStatus(bookerId, BookingStatus.WAITING, limit);
+            case REJECTED -> bookingRepository.findFirstPageByBookerIdAndStatus(bookerId, BookingStatus.REJECTED,
+                    limit);
+        };
+    }
+
+    private List<BookingDto> findBookerPageAfter(BookingState state, Long bookerId, LocalDateTime now,
+                                                 BookingCursor after, Limit limit) {
+        LocalDateTime afterStart = after.getStart();
+        Long afterId = after.getId();
+        return switch (state) {
+            case ALL -> bookingRepository.findPageByBookerId(bookerId, afterStart, afterId, limit);
+            case CURRENT -> bookingRepository.findCurrentPageByBookerId(bookerId, now, afterStart, afterId, limit);
+            case PAST -> bookingRepository.findPastPageByBookerId(bookerId, now, afterStart, afterId, limit);
+            case FUTURE -> bookingRepository.findFuturePageByBookerId(bookerId, now, afterStart, afterId, limit);
+            case WAITING -> bookingRepository.findPageByBookerIdAndStatus(bookerId, BookingStatus.WAITING,
+                    afterStart, afterId, limit);
+            case REJECTED -> bookingRepository.findPageByBookerIdAndStatus(bookerId, BookingStatus.REJECTED,
+                    afterStart, afterId, limit);
+        };
+    }
 
-        if (status == null) {
-            bookings = bookingRepository.findAllBookingsByItemByUserId(userId);
-        } else {
-            bookings = bookingRepository.findAllBookingsByItemByUserIdAndStatus(userId, status);
+    private List<BookingDto> findFirstOwnerPage(BookingState state, Long ownerId, LocalDateTime now, Limit limit) {
+        return switch (state) {
+            case ALL -> bookingRepository.findFirstPageByOwnerId(ownerId, limit);
+            case CURRENT -> bookingRepository.findCurrentFirstPageByOwnerId(ownerId, now, limit);
+            case PAST -> bookingRepository.findPastFirstPageByOwnerId(ownerId, now, limit);
+            case FUTURE -> bookingRepository.findFutureFirstPageByOwnerId(ownerId, now, limit);
+            case WAITING -> bookingRepository.findFirstPageByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, limit);
+            case REJECTED -> bookingRepository.findFirstPageByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED,
+                    limit);
+        };
+    }
+
+    private List<BookingDto> findOwnerPageAfter(BookingState state, Long ownerId, LocalDateTime now,
+                                                BookingCursor after, Limit limit) {
+        LocalDateTime afterStart = after.getStart();
+        Long afterId = after.getId();
+        return switch (state) {
+            case ALL -> bookingRepository.findPageByOwnerId(ownerId, afterStart, afterId, limit);
+            case CURRENT -> bookingRepository.findCurrentPageByOwnerId(ownerId, now, afterStart, afterId, limit);
+            case PAST -> bookingRepository.findPastPageByOwnerId(ownerId, now, afterStart, afterId, limit);
+            case FUTURE -> bookingRepository.findFuturePageByOwnerId(ownerId, now, afterStart, afterId, limit);
+            case WAITING -> bookingRepository.findPageByOwnerIdAndStatus(ownerId, BookingStatus.WAITING,
+                    afterStart, afterId, limit);
+            case REJECTED -> bookingRepository.findPageByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED,
+                    afterStart, afterId, limit);
+        };
+    }
+
+    private BookingPage toBookingPage(List<BookingDto> bookings, Integer size) {
+        if (size == null) {
+            return BookingPage.builder()
+                    .bookings(bookings)
+                    .build();
         }
+        List<BookingDto> page = bookings.size() > size ? bookings.subList(0, size) : bookings;
+        String nextCursor = bookings.size() > size
+                ? BookingCursor.after(page.get(page.size() - 1)).encode()
+                : null;
 
-        return bookings.stream()
-                .map(BookingMapper::mapToBookingDto)
-                .collect(Collectors.toList());
+        return BookingPage.builder()
+                .bookings(page)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Без size и cursor список отдается целиком, как до постраничной выдачи: клиенты, не знающие
+     * X-Next-Cursor, не должны молча получать только первую страницу. Курсор без size читает страницу
+     * размера по умолчанию.
+     */
+    private Integer pageSize(String cursor, Integer size) {
+        if (size == null) {
+            return cursor == null ? null : DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1) {
+            log.warn("Запрошен размер страницы {}", size);
+            throw new ValidationException("Размер страницы должен быть больше нуля.");
+        }
+        return size;
     }
 
     private Booking validateBooking(Long bookingId) {
@@ -121,15 +239,87 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private void validateBookingPeriod(Long itemId, LocalDateTime start, LocalDateTime end) {
-        if (bookingRepository.existsApprovedBookingInPeriod(itemId, start, end)) {
+        if (isPeriodBooked(itemId, start, end)) {
             log.warn("Период времени уже забронирован.");
             throw new ValidationException("Данное время уже забронировано!");
         }
     }
 
+    /**
+     * Занятость, найденная в индексе, окончательна. Свободный по индексу период подтверждается в базе,
+     * так как индекс еще не видит одобрений из незафиксированных и только что зафиксированных транзакций.
+     */
+    private boolean isPeriodBooked(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return approvedBookingIndex.overlaps(itemId, start, end)
+                || bookingRepository.existsApprovedBookingInPeriod(itemId, start, end);
+    }
+
+    private void validateApprovalPeriod(Booking booking) {
+        if (isPeriodBooked(booking.getItem().getId(), booking.getStart(), booking.getEnd())) {
+            log.warn("Бронирование с id = {} пересекается с уже одобренным.", booking.getId());
+            throw new ConflictException("Данное время уже забронировано!");
+        }
+    }
+
+    /**
+     * Одобрения по одной вещи идут по очереди: строка вещи блокируется до проверки пересечения
+     * и раньше строк бронирований. Без этого два одобрения пересекающихся бронирований блокировали
+     * строки друг друга в разном порядке и ждали одно другое. Если блокировку не дождаться
+     * за таймаут, запрос завершится конфликтом.
+     */
+    private void lockItemForApproval(Long itemId) {
+        itemRepository.findByIdForApproval(itemId)
+                .orElseThrow(() -> new NotFoundException("Item с id = " + itemId + " не найден."));
+    }
+
+    /**
+     * Статус меняется условным update только из WAITING, поэтому параллельные решения владельца
+     * не перезаписывают друг друга. Исключающее ограничение bookings_approved_no_overlap срабатывает
+     * на этом же запросе.
+     */
+    private void updateStatusIfWaiting(Booking booking, BookingStatus newStatus) {
+        int updated;
+        try {
+            updated = bookingRepository.updateStatusIfWaiting(booking.getId(), newStatus);
+        } catch (DataIntegrityViolationException exception) {
+            if (!IntegrityViolations.isConflict(exception)) {
+                throw exception;
+            }
+            log.warn("Одобрение бронирования с id = {} нарушает ограничение: {}",
+                    booking.getId(), exception.getMostSpecificCause().getMessage());
+            throw new ConflictException("Данное время уже забронировано!");
+        }
+        if (updated == 0) {
+            log.warn("Бронирование с id = {} уже не ожидает решения владельца.", booking.getId());
+            throw new ConflictException("Бронирование с id = " + booking.getId() + " уже рассмотрено.");
+        }
+    }
+
+    /**
+     * Одобренное бронирование делает пересекающиеся ожидающие бронирования вещи невыполнимыми,
+     * поэтому они отклоняются одним update в той же транзакции. Строки блокируются при выборке id,
+     * чтобы параллельное решение владельца не изменило набор между выборкой и update.
+     */
+    private List<Long> rejectOverlappingWaiting(Booking booking) {
+        List<Long> overlapping = bookingRepository.findOverlappingWaitingIds(booking.getItem().getId(),
+                booking.getId(), booking.getStart(), booking.getEnd());
+        if (overlapping.isEmpty()) {
+            return List.of();
+        }
+        int rejected = bookingRepository.rejectWaitingByIds(overlapping);
+        log.debug("При одобрении бронирования с id = {} отклонено пересекающихся: {}", booking.getId(), rejected);
+
+        return overlapping;
+    }
+
     private User validateUser(Long userId) {
+        if (userBloomFilter.isAbsent(userId)) {
+            log.warn("Пользователь с id = {} не найден", userId);
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден.");
+        }
         return userRepository.findById(userId)
                 .orElseThrow(() -> {
+                    userBloomFilter.recordIdFalsePositive();
                     log.warn("Пользователь с id = {} не найден", userId);
                     return new NotFoundException("Пользователь с id = " + userId + " не найден.");
                 });
@@ -150,6 +340,28 @@ public class BookingServiceImpl implements BookingService {
         return item;
     }
 
+    /**
+     * Повтор проверок в транзакции групповой записи запросами к базе, минуя кэш второго уровня:
+     * за время ожидания в очереди автора могли удалить, а вещь удалить или снять с бронирования.
+     */
+    private void recheckBooking(Booking booking) {
+        Long bookerId = booking.getBooker().getId();
+        Long itemId = booking.getItem().getId();
+        if (!userRepository.existsById(bookerId)) {
+            log.warn("Пользователь с id = {} удален до сохранения бронирования", bookerId);
+            throw new NotFoundException("Пользователь с id = " + bookerId + " не найден.");
+        }
+        boolean available = itemRepository.findAvailableById(itemId)
+                .orElseThrow(() -> {
+                    log.warn("Item с id = {} удален до сохранения бронирования", itemId);
+                    return new NotFoundException("Item с id = " + itemId + " не найден.");
+                });
+        if (!available) {
+            log.warn("Item с id = {} снят с бронирования до сохранения бронирования", itemId);
+            throw new ValidationException("Item с id = " + itemId + " недоступен для бронирования.");
+        }
+    }
+
     private void validateBookingDates(NewBookingRequest request) {
         if (!request.getEnd().isAfter(request.getStart())) {
             throw new ValidationException(
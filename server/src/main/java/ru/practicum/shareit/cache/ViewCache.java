@@ -0,0 +1,97 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш собранных DTO по id. Запись живет не дольше ttl и не дольше момента, когда представление
+ * устаревает само по себе (например, ближайшее бронирование становится текущим). При переполнении
+ * вытесняются редко читаемые записи. Сброс после изменений делают наследники по событиям.
+ * <p>
+ * Загрузка идет вне блокировок кэша: вычисление по ключу держит synchronized, и запросы к базе внутри
+ * него закрепляли бы виртуальный поток за несущим. Чтобы представление, прочитанное до фиксации
+ * изменения, не осталось в кэше, загрузка сверяет счетчик сбросов и при любом сбросе во время
+ * загрузки убирает свой результат.
+ */
+public abstract class ViewCache<V> {
+    private final Cache<Long, View<V>> cache;
+    private final AtomicLong evictions = new AtomicLong();
+
+    protected ViewCache(String name, MeterRegistry meterRegistry, Duration ttl, long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ViewExpiry<V>(ttl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public V get(Long id, Function<Long, View<V>> loader) {
+        View<V> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.value();
+        }
+        long stamp = evictions.get();
+        View<V> loaded = loader.apply(id);
+        cache.put(id, loaded);
+        if (evictions.get() != stamp) {
+            cache.invalidate(id);
+        }
+        return loaded.value();
+    }
+
+    public void evict(Long id) {
+        evictions.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    /**
+     * Сбрасывает представления, в которых участвует пользователь: его имя или сами его данные в них устарели.
+     */
+    public void evictUser(Long userId) {
+        evictions.incrementAndGet();
+        cache.asMap().values().removeIf(view -> view.userIds().contains(userId));
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Собранное представление, id пользователей, данные которых в него вошли, и момент,
+     * после которого оно устаревает без всяких изменений. null означает, что такого момента нет.
+     */
+    public record View<V>(V value, Set<Long> userIds, LocalDateTime validUntil) {
+    }
+
+    private record ViewExpiry<V>(long ttlNanos) implements Expiry<Long, View<V>> {
+        @Override
+        public long expireAfterCreate(Long id, View<V> view, long currentTime) {
+            LocalDateTime now = LocalDateTime.now();
+            if (view.validUntil() == null || view.validUntil().isAfter(now.plusNanos(ttlNanos))) {
+                return ttlNanos;
+            }
+            return Math.max(0, Duration.between(now, view.validUntil()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, View<V> view, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, View<V> view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
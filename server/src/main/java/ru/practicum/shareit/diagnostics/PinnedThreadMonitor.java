@@ -0,0 +1,64 @@
+package ru.practicum.shareit.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Следит через JFR за виртуальными потоками, которые заблокировались, не отпустив несущий поток
+ * (внутри synchronized или нативного вызова). Такие блокировки возвращают предел параллельности
+ * к числу несущих потоков, поэтому каждая длиннее порога пишется в лог со стеком и в метрику.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "shareit.diagnostics.pinned-threads.enabled", matchIfMissing = true)
+@Slf4j
+public class PinnedThreadMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 40;
+
+    private final RecordingStream stream = new RecordingStream();
+    private final Timer pinned;
+
+    public PinnedThreadMonitor(MeterRegistry meterRegistry,
+                               @Value("${shareit.diagnostics.pinned-threads.threshold:20ms}") Duration threshold) {
+        this.pinned = Timer.builder("shareit.virtual.thread.pinned")
+                .description("Блокировки виртуальных потоков вместе с несущим потоком")
+                .register(meterRegistry);
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        String frames = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(PinnedThreadMonitor::format)
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Виртуальный поток {} удерживал несущий поток {} мс{}", event.getThread().getJavaName(),
+                event.getDuration().toMillis(), frames);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stream.close();
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Разбор нарушений целостности: конфликтом с уже сохраненными данными считаются только
+ * исключающие и уникальные ограничения, остальные нарушения конфликтом не являются.
+ */
+public final class IntegrityViolations {
+    public static final String EXCLUSION_VIOLATION = "23P01";
+    public static final String UNIQUE_VIOLATION = "23505";
+
+    private static final Set<String> CONFLICT_STATES = Set.of(EXCLUSION_VIOLATION, UNIQUE_VIOLATION);
+    private static final Set<String> CONFLICT_CONSTRAINTS = Set.of("bookings_approved_no_overlap",
+            "uq_users_email", "idx_users_email");
+
+    private IntegrityViolations() {
+    }
+
+    public static boolean isConflict(DataIntegrityViolationException exception) {
+        String state = sqlState(exception);
+        if (state != null) {
+            return CONFLICT_STATES.contains(state);
+        }
+        String constraint = constraintName(exception);
+        return constraint != null && CONFLICT_CONSTRAINTS.contains(constraint.toLowerCase(Locale.ROOT));
+    }
+
+    static String sqlState(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+
+    static String constraintName(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+}
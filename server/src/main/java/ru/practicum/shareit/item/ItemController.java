@@ -1,12 +1,28 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.bulk.ItemImportParser;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * TODO Sprint add-controllers.
@@ -16,6 +32,7 @@ import java.util.Collection;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto createItem(@Valid @RequestBody NewItemDto item,
@@ -23,6 +40,22 @@ public class ItemController {
         return itemService.createItem(item, ownerId);
     }
 
+    /**
+     * Принимает вещи в формате NDJSON или CSV и по мере сохранения отдает результат каждой строки
+     * отдельной строкой NDJSON: id созданной вещи или текст ошибки.
+     */
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public void importItems(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+        ItemImportParser lines = ItemImportParser.of(contentType, reader, objectMapper);
+
+        itemService.importItems(ownerId, lines, results -> writeLines(response, results));
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @Valid @RequestBody UpdateItemRequest request,
@@ -35,14 +68,27 @@ public class ItemController {
         return itemService.getItem(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
     @GetMapping
     public Collection<ItemWithCommentsDto> getOwnerItems(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
         return itemService.getOwnerItems(ownerId);
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> searchItem(@RequestParam String text) {
-        return itemService.searchItem(text);
+    public Collection<ItemDto> searchItem(
+            @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return itemService.searchItem(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -51,4 +97,25 @@ public class ItemController {
                                     @RequestHeader("X-Sharer-User-Id") Long authorId) {
         return itemService.createComment(itemId, newComment, authorId);
     }
+
+    /**
+     * Тип ответа задается при первой записи: до нее ошибка, например неизвестный владелец,
+     * еще может уйти обычным ответом ErrorHandler.
+     */
+    private void writeLines(HttpServletResponse response, List<ItemImportResultDto> results) {
+        try {
+            if (!response.isCommitted()) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            }
+            PrintWriter writer = response.getWriter();
+            for (ItemImportResultDto result : results) {
+                writer.write(objectMapper.writeValueAsString(result));
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
 }
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item.bulk;
+
+import ru.practicum.shareit.item.dto.NewItemDto;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV с заголовком из колонок name, description, available и необязательной requestId в любом порядке.
+ * Значения в двойных кавычках могут содержать запятые, кавычка внутри них удваивается.
+ * Перевод строки внутри значения не поддерживается: каждая запись занимает одну строку.
+ */
+public class CsvItemImportParser extends ItemImportParser {
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "available");
+
+    private Map<String, Integer> columns;
+    private String headerError;
+
+    public CsvItemImportParser(BufferedReader reader) {
+        super(reader);
+    }
+
+    @Override
+    protected ItemImportLine parse(long lineNumber, String line) {
+        if (columns == null && headerError == null) {
+            readHeader(line);
+            return headerError != null ? ItemImportLine.failed(lineNumber, headerError) : null;
+        }
+        if (headerError != null) {
+            return ItemImportLine.failed(lineNumber, headerError);
+        }
+        List<String> values = split(line);
+        if (values == null) {
+            return ItemImportLine.failed(lineNumber, "Незакрытая кавычка в строке CSV.");
+        }
+        if (values.size() != columns.size()) {
+            return ItemImportLine.failed(lineNumber,
+                    "Ожидалось значений: " + columns.size() + ", получено: " + values.size() + ".");
+        }
+
+        String available = value(values, "available");
+        if (available != null && !available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+            return ItemImportLine.failed(lineNumber, "Доступность вещи должна быть true или false.");
+        }
+        String requestId = value(values, "requestid");
+        try {
+            return ItemImportLine.parsed(lineNumber, NewItemDto.builder()
+                    .name(value(values, "name"))
+                    .description(value(values, "description"))
+                    .available(available != null ? Boolean.valueOf(available) : null)
+                    .requestId(requestId != null ? Long.valueOf(requestId) : null)
+                    .build());
+        } catch (NumberFormatException exception) {
+            return ItemImportLine.failed(lineNumber, "Некорректный id запроса: " + requestId + ".");
+        }
+    }
+
+    private void readHeader(String line) {
+        List<String> names = split(line);
+        if (names == null) {
+            headerError = "Незакрытая кавычка в заголовке CSV.";
+            return;
+        }
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !header.containsKey(column))
+                .toList();
+        if (!missing.isEmpty()) {
+            headerError = "В заголовке CSV нет колонок: " + String.join(", ", missing) + ".";
+            return;
+        }
+        columns = header;
+    }
+
+    /**
+     * Пустое значение без кавычек считается отсутствующим.
+     */
+    private String value(List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Делит строку на значения. Возвращает null, если кавычка не закрыта.
+     */
+    static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char symbol = line.charAt(i);
+            if (quoted) {
+                if (symbol == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (symbol == '"') {
+                    quoted = false;
+                } else {
+                    current.append(symbol);
+                }
+            } else if (symbol == '"') {
+                quoted = true;
+            } else if (symbol == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(symbol);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.item.dto.NewItemDto;
+
+/**
+ * Строка импорта: номер строки во входном потоке и разобранная вещь либо ошибка разбора.
+ */
+@Data
+@AllArgsConstructor
+public class ItemImportLine {
+    private long line;
+    private NewItemDto item;
+    private String error;
+
+    public static ItemImportLine parsed(long line, NewItemDto item) {
+        return new ItemImportLine(line, item, null);
+    }
+
+    public static ItemImportLine failed(long line, String error) {
+        return new ItemImportLine(line, null, error);
+    }
+}
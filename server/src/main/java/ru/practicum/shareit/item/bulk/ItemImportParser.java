@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Читает вещи для импорта построчно, не загружая тело запроса целиком.
+ * Пустые строки пропускаются, ошибка в строке не прерывает чтение следующих.
+ */
+public abstract class ItemImportParser implements Iterator<ItemImportLine> {
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final BufferedReader reader;
+    private long lineNumber;
+    private ItemImportLine next;
+
+    protected ItemImportParser(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    public static ItemImportParser of(MediaType contentType, BufferedReader reader, ObjectMapper objectMapper) {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonItemImportParser(reader, objectMapper);
+        }
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return new CsvItemImportParser(reader);
+        }
+        throw new ValidationException("Импорт поддерживает форматы application/x-ndjson и text/csv.");
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            String line = readLine();
+            if (line == null) {
+                return false;
+            }
+            lineNumber++;
+            if (!line.isBlank()) {
+                next = parse(lineNumber, line);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ItemImportLine next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ItemImportLine result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Возвращает null для строк без вещи, например заголовка CSV.
+     */
+    protected abstract ItemImportLine parse(long lineNumber, String line);
+
+    private String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
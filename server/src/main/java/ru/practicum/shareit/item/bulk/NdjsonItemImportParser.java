@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.item.dto.NewItemDto;
+
+import java.io.BufferedReader;
+
+/**
+ * Одна вещь в формате JSON на строку.
+ */
+public class NdjsonItemImportParser extends ItemImportParser {
+    private final ObjectMapper objectMapper;
+
+    public NdjsonItemImportParser(BufferedReader reader, ObjectMapper objectMapper) {
+        super(reader);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected ItemImportLine parse(long lineNumber, String line) {
+        try {
+            return ItemImportLine.parsed(lineNumber, objectMapper.readValue(line, NewItemDto.class));
+        } catch (JsonProcessingException exception) {
+            return ItemImportLine.failed(lineNumber, "Некорректный JSON: " + exception.getOriginalMessage());
+        }
+    }
+}
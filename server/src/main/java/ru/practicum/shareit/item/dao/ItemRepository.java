@@ -1,22 +1,84 @@
 package ru.practicum.shareit.item.dao;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemSearchRow;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByOwnerId(Long ownerId);
 
-    @Query("select i from Item as i " +
-            "where i.available = true and " +
-            "upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%'))")
-    List<Item> searchItem(String text);
+    @Query("select i.available from Item as i where i.id = ?1")
+    Optional<Boolean> findAvailableById(Long itemId);
 
-    List<Item> findByRequestIdIn(List<Long> requestsIds);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("select i from Item as i where i.id = ?1")
+    Optional<Item> findByIdForApproval(Long itemId);
 
-    List<Item> findByRequestId(Long requestId);
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available) " +
+            "from Item as i " +
+            "where i.available = true and (" +
+            "upper(i.name) like upper(concat('%', ?1, '%')) escape '\\' " +
+            "or upper(i.description) like upper(concat('%', ?1, '%')) escape '\\') " +
+            "order by i.id " +
+            "limit ?2 offset ?3")
+    List<ItemDto> searchItem(String pattern, int limit, int offset);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available) " +
+            "from Item as i " +
+            "where i.available = true and (" +
+            "upper(i.name) like upper(concat('%', ?1, '%')) escape '\\' " +
+            "or upper(i.description) like upper(concat('%', ?1, '%')) escape '\\') " +
+            "and not exists (select b.id from Booking as b " +
+            "where b.item = i and b.status = 'APPROVED' and b.start < ?3 and b.end > ?2) " +
+            "order by i.id " +
+            "limit ?4 offset ?5")
+    List<ItemDto> searchAvailableItem(String pattern, LocalDateTime start, LocalDateTime end, int limit, int offset);
+
+    @Query(value = "select i.id, i.\"name\", i.description, i.is_available as available from items as i " +
+            "where i.is_available = true and (" +
+            "i.search_vector @@ plainto_tsquery('russian', ?2) " +
+            "or i.\"name\" ilike concat('%', ?1, '%') " +
+            "or i.description ilike concat('%', ?1, '%')) " +
+            "order by ts_rank(i.search_vector, plainto_tsquery('russian', ?2)) desc, " +
+            "greatest(similarity(i.\"name\", ?2), similarity(i.description, ?2)) desc, i.id " +
+            "limit ?3 offset ?4",
+            nativeQuery = true)
+    List<ItemSearchRow> searchItemFullText(String pattern, String text, int limit, int offset);
+
+    @Query(value = "select i.id, i.\"name\", i.description, i.is_available as available from items as i " +
+            "where i.is_available = true and (" +
+            "i.search_vector @@ plainto_tsquery('russian', ?2) " +
+            "or i.\"name\" ilike concat('%', ?1, '%') " +
+            "or i.description ilike concat('%', ?1, '%')) " +
+            "and not exists (select 1 from bookings as b " +
+            "where b.item_id = i.id and b.status = 'APPROVED' and b.start_date < ?4 and b.end_date > ?3) " +
+            "order by ts_rank(i.search_vector, plainto_tsquery('russian', ?2)) desc, " +
+            "greatest(similarity(i.\"name\", ?2), similarity(i.description, ?2)) desc, i.id " +
+            "limit ?5 offset ?6",
+            nativeQuery = true)
+    List<ItemSearchRow> searchAvailableItemFullText(String pattern, String text, LocalDateTime start, LocalDateTime end,
+                                           int limit, int offset);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemForItemRequestDto(i.id, i.name, i.owner.id, i.request.id) " +
+            "from Item as i " +
+            "where i.request.id in ?1")
+    List<ItemForItemRequestDto> findItemsForRequests(List<Long> requestsIds);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemForItemRequestDto(i.id, i.name, i.owner.id, i.request.id) " +
+            "from Item as i " +
+            "where i.request.id = ?1")
+    List<ItemForItemRequestDto> findItemsForRequest(Long requestId);
 }
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class ItemForItemRequestDto {
     private Long id;
     private String name;
     private Long ownerId;
+
+    @JsonIgnore
+    private Long requestId;
 }
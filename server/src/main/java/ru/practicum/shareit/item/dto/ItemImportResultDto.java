@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResultDto {
+    private long line;
+    private Long id;
+    private String error;
+
+    public static ItemImportResultDto created(long line, Long id) {
+        return new ItemImportResultDto(line, id, null);
+    }
+
+    public static ItemImportResultDto failed(long line, String error) {
+        return new ItemImportResultDto(line, null, error);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Строка полнотекстового поиска. Нативный запрос не умеет создавать ItemDto через конструктор,
+ * поэтому колонки читаются через интерфейсную проекцию, без загрузки сущностей в контекст.
+ */
+public interface ItemSearchRow {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+}
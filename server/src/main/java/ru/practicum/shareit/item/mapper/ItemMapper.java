@@ -16,6 +16,15 @@ public final class ItemMapper {
                 .build();
     }
 
+    public static ItemDto mapToItemDto(ItemSearchRow row) {
+        return ItemDto.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .description(row.getDescription())
+                .available(row.getAvailable())
+                .build();
+    }
+
     public static ItemWithCommentsDto mapToItemWithCommentsDto(Item item, List<CommentDto> comments,
                                                                BookingDto lastBooking, BookingDto nextBooking) {
         return ItemWithCommentsDto.builder()
@@ -34,6 +43,7 @@ public final class ItemMapper {
                 .id(item.getId())
                 .name(item.getName())
                 .ownerId(item.getOwner().getId())
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .build();
     }
 
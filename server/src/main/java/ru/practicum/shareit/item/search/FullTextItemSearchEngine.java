@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchRow;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск PostgreSQL: совпадения по словам находит GIN-индекс по tsvector,
+ * совпадения по подстроке - триграммный индекс pg_trgm. Результаты упорядочены по релевантности.
+ * Запрос выбирает только колонки выдачи, сущности Item в контекст не загружаются.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "full-text", matchIfMissing = true)
+@RequiredArgsConstructor
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(ItemSearchQuery query) {
+        String pattern = LikePatterns.escape(query.getText());
+        List<ItemSearchRow> rows = query.hasPeriod()
+                ? itemRepository.searchAvailableItemFullText(pattern, query.getText(), query.getStart(),
+                        query.getEnd(), query.getSize(), query.getFrom())
+                : itemRepository.searchItemFullText(pattern, query.getText(), query.getSize(), query.getFrom());
+
+        return rows.stream()
+                .map(ItemMapper::mapToItemDto)
+                .toList();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Поиск по индексу в памяти процесса. Индекс строится из базы при старте приложения
+ * и дополняется после фиксации каждой транзакции, создавшей или изменившей вещь.
+ * Если задан период, занятые в нем вещи отсеиваются запросами по найденным id порциями
+ * не больше ID_CHUNK: короткий текст совпадает со всеми вещами, а число параметров запроса ограничено.
+ * Порции читаются, пока не набрана страница.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "in-memory")
+@Slf4j
+@RequiredArgsConstructor
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    static final int ID_CHUNK = 1000;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @Override
+    public List<ItemDto> search(ItemSearchQuery query) {
+        if (!query.hasPeriod()) {
+            return index.search(query);
+        }
+        long[] matches = index.matches(query.getText());
+        List<ItemDto> result = new ArrayList<>(Math.min(query.getSize(), matches.length));
+        int skip = query.getFrom();
+        for (int offset = 0; offset < matches.length && result.size() < query.getSize(); offset += ID_CHUNK) {
+            long[] chunk = Arrays.copyOfRange(matches, offset, Math.min(offset + ID_CHUNK, matches.length));
+            Set<Long> booked = new HashSet<>(bookingRepository.findItemIdsWithApprovedBookingInPeriod(
+                    Arrays.stream(chunk).boxed().toList(), query.getStart(), query.getEnd()));
+            for (ItemDto item : index.page(chunk, booked, 0, chunk.length)) {
+                if (skip > 0) {
+                    skip--;
+                } else if (result.size() < query.getSize()) {
+                    result.add(item);
+                }
+            }
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.rebuild(() -> itemRepository.findAll()
+                .stream()
+                .map(ItemMapper::mapToItemDto)
+                .toList());
+        log.info("Поисковый индекс построен, вещей: {}", index.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        index.put(event.getItem());
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по названию и описанию.
+ * Реализация выбирается свойством shareit.search.engine.
+ */
+public interface ItemSearchEngine {
+    List<ItemDto> search(ItemSearchQuery query);
+}
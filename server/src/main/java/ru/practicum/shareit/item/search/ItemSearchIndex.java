@@ -0,0 +1,271 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Инвертированный индекс вещей по триграммам названия и описания.
+ * Списки вхождений хранятся как отсортированные массивы id, поэтому пересечение идет слиянием
+ * без упаковки в объекты. Кандидаты из пересечения проверяются поиском подстроки, так что выдача
+ * совпадает с поиском через like.
+ */
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<String, long[]> postings = new HashMap<>();
+    private long[] allIds = EMPTY;
+    private Map<Long, ItemDto> changedDuringRebuild;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(ItemDto item) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(item.getId(), item);
+            }
+            apply(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Заменяет содержимое индекса снимком из источника. Снимок читается без блокировки, поэтому
+     * вещи, пришедшие через put во время чтения, запоминаются и применяются поверх снимка:
+     * изменение, зафиксированное после чтения из базы, не теряется.
+     */
+    public void rebuild(Supplier<? extends Collection<ItemDto>> snapshot) {
+        Map<Long, ItemDto> changed = new LinkedHashMap<>();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Collection<ItemDto> all;
+        try {
+            all = snapshot.get();
+        } catch (RuntimeException e) {
+            stopRecording(changed);
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            postings.clear();
+            allIds = EMPTY;
+            all.forEach(this::apply);
+            changed.values().forEach(this::apply);
+            stopRecording(changed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(ItemSearchQuery query) {
+        return page(matches(query.getText()), Set.of(), query.getFrom(), query.getSize());
+    }
+
+    /**
+     * Id доступных вещей, в названии или описании которых есть текст, по возрастанию.
+     */
+    public long[] matches(String text) {
+        String normalized = normalize(text);
+        lock.readLock().lock();
+        try {
+            long[] candidates = candidates(normalized);
+            long[] result = new long[candidates.length];
+            int size = 0;
+            for (long id : candidates) {
+                if (items.get(id).matches(normalized)) {
+                    result[size++] = id;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Окно выдачи из найденных id без исключенных. Вещи, удаленные из индекса после поиска, пропускаются.
+     */
+    public List<ItemDto> page(long[] ids, Set<Long> excluded, int from, int size) {
+        lock.readLock().lock();
+        try {
+            List<ItemDto> result = new ArrayList<>(Math.min(size, ids.length));
+            int skipped = 0;
+            for (long id : ids) {
+                IndexedItem item = items.get(id);
+                if (item == null || excluded.contains(id)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                    continue;
+                }
+                result.add(item.toDto());
+                if (result.size() == size) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ItemDto item) {
+        IndexedItem indexed = new IndexedItem(item);
+        IndexedItem previous = items.put(item.getId(), indexed);
+        if (previous != null) {
+            previous.grams.forEach(gram -> removePosting(gram, item.getId()));
+        } else {
+            allIds = insert(allIds, item.getId());
+        }
+        indexed.grams.forEach(gram -> postings.merge(gram, new long[]{item.getId()},
+                (ids, added) -> insert(ids, item.getId())));
+    }
+
+    private void stopRecording(Map<Long, ItemDto> changed) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild == changed) {
+                changedDuringRebuild = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] candidates(String text) {
+        Set<String> grams = grams(text);
+        if (grams.isEmpty()) {
+            return allIds;
+        }
+        List<long[]> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            long[] ids = postings.get(gram);
+            if (ids == null) {
+                return EMPTY;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private void removePosting(String gram, long id) {
+        long[] ids = postings.get(gram);
+        if (ids == null) {
+            return;
+        }
+        long[] remaining = remove(ids, id);
+        if (remaining.length == 0) {
+            postings.remove(gram);
+        } else {
+            postings.put(gram, remaining);
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    static long[] insert(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int index = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, index);
+        result[index] = id;
+        System.arraycopy(ids, index, result, index + 1, ids.length - index);
+        return result;
+    }
+
+    static long[] remove(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return ids;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, index);
+        System.arraycopy(ids, index + 1, result, index, ids.length - index - 1);
+        return result;
+    }
+
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static final class IndexedItem {
+        private final ItemDto item;
+        private final String name;
+        private final String description;
+        private final Set<String> grams;
+
+        private IndexedItem(ItemDto item) {
+            this.item = toCopy(item);
+            this.name = normalize(item.getName());
+            this.description = normalize(item.getDescription());
+            this.grams = new HashSet<>(grams(name));
+            this.grams.addAll(grams(description));
+        }
+
+        private boolean matches(String text) {
+            return Boolean.TRUE.equals(item.getAvailable()) && (name.contains(text) || description.contains(text));
+        }
+
+        private ItemDto toDto() {
+            return toCopy(item);
+        }
+
+        private static ItemDto toCopy(ItemDto item) {
+            return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры поиска вещей: строка запроса, окно выдачи и необязательный период,
+ * в котором вещь не должна иметь одобренных бронирований.
+ */
+@Data
+@Builder
+public class ItemSearchQuery {
+    private String text;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private int from;
+    private int size;
+
+    public boolean hasPeriod() {
+        return start != null && end != null;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+/**
+ * Переносимый поиск по подстроке через like. Используется с H2 в тестовом профиле.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "like")
+@RequiredArgsConstructor
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(ItemSearchQuery query) {
+        String pattern = LikePatterns.escape(query.getText());
+        if (query.hasPeriod()) {
+            return itemRepository.searchAvailableItem(pattern, query.getStart(), query.getEnd(),
+                    query.getSize(), query.getFrom());
+        }
+        return itemRepository.searchItem(pattern, query.getSize(), query.getFrom());
+    }
+}
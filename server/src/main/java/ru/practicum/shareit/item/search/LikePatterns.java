@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+final class LikePatterns {
+    private LikePatterns() {
+    }
+
+    /**
+     * Экранирует служебные символы like, чтобы текст запроса искался буквально.
+     */
+    static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
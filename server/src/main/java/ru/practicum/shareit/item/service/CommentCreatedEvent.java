@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+/**
+ * Публикуется после сохранения отзыва. Отзыв записывается групповой фиксацией вне транзакции
+ * вызывающего, поэтому слушатели должны принимать событие и без транзакции.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CommentCreatedEvent {
+    private final CommentDto comment;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Публикуется при создании и изменении вещи, requestId задан, если вещь добавлена по запросу. Слушатели получают его после фиксации транзакции.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemChangedEvent {
+    private final ItemDto item;
+    private final Long requestId;
+}
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.bulk.ItemImportLine;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto createItem(NewItemDto item, Long ownerId);
@@ -13,7 +18,11 @@ public interface ItemService {
 
     Collection<ItemWithCommentsDto> getOwnerItems(Long ownerId);
 
-    Collection<ItemDto> searchItem(String text);
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    Collection<ItemDto> searchItem(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     CommentDto createComment(Long itemId, NewCommentRequest newComment, Long authorId);
+
+    void importItems(Long ownerId, Iterator<ItemImportLine> lines, Consumer<List<ItemImportResultDto>> results);
 }
@@ -1,15 +1,26 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.booking.dao.BookingRepository;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.cache.ViewCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.bulk.ItemImportLine;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.dao.CommentRepository;
@@ -17,16 +28,26 @@ import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchQuery;
+import ru.practicum.shareit.persistence.GroupCommitWriter;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserBloomFilter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,11 +55,23 @@ import java.util.stream.Collectors;
 @Slf4j
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int IMPORT_BATCH_SIZE = 50;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserBloomFilter userBloomFilter;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GroupCommitWriter groupCommitWriter;
+    private final ItemViewCache itemViewCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional
@@ -55,8 +88,10 @@ public class ItemServiceImpl implements ItemService {
                 .build();
         Item createdItem = itemRepository.save(item);
         log.debug("Вещь {} успешно добавлена.", item.getName());
+        ItemDto createdItemDto = ItemMapper.mapToItemDto(createdItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(createdItemDto, requestId(createdItem)));
 
-        return ItemMapper.mapToItemDto(createdItem);
+        return createdItemDto;
     }
 
     @Override
@@ -73,57 +108,87 @@ public class ItemServiceImpl implements ItemService {
             itemRepository.save(updateItem);
             log.debug("Данные item {} успешно обновлены.", item.getName());
         }
+        ItemDto updatedItemDto = ItemMapper.mapToItemDto(updateItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(updatedItemDto, requestId(updateItem)));
 
-        return ItemMapper.mapToItemDto(updateItem);
+        return updatedItemDto;
     }
 
     @Override
     public ItemWithCommentsDto getItem(Long itemId) {
-        Item item = validateItem(itemId);
-        List<Comment> allComments = commentRepository.findByItemId(itemId);
-        List<Booking> allBookings = bookingRepository.findByItemId(itemId);
-
-        return convertToItemWithCommentsDto(item, allBookings, allComments);
+        return itemViewCache.get(itemId, this::loadItemView);
     }
 
     @Override
     public Collection<ItemWithCommentsDto> getOwnerItems(Long ownerId) {
         List<Item> ownerItems = itemRepository.findByOwnerId(ownerId);
-        List<Booking> allBookings = bookingRepository.findAllBookingsByItemByUserId(ownerId);
+        if (ownerItems.isEmpty()) {
+            return List.of();
+        }
         List<Comment> allComments = commentRepository.findByAuthorId(ownerId);
 
-        if (allBookings == null) {
-            allBookings = List.of();
-        }
         if (allComments == null) {
             allComments = List.of();
         }
 
-        Map<Long, List<Booking>> bookingsByItemId = groupBookingsByItemId(allBookings);
+        List<Long> itemIds = ownerItems.stream()
+                .map(Item::getId)
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<BookingDto>> bookingsByItemId = findLastCurrentAndNextBookings(itemIds, now);
         Map<Long, List<Comment>> commentsByItemId = groupCommentsByItemId(allComments);
 
         return ownerItems.stream()
                 .map(item -> {
-                    List<Booking> itemBookings = bookingsByItemId.getOrDefault(item.getId(), List.of());
+                    List<BookingDto> itemBookings = bookingsByItemId.getOrDefault(item.getId(), List.of());
                     List<Comment> itemComments = commentsByItemId.getOrDefault(item.getId(), List.of());
 
-                    return convertToItemWithCommentsDto(item, itemBookings, itemComments);
+                    return convertToItemWithCommentsDto(item, itemBookings, itemComments, now);
                 })
                 .collect(Collectors.toList());
     }
 
     @Override
-    public Collection<ItemDto> searchItem(String text) {
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            log.warn("Запрошено окно доступности from = {}, to = {}", from, to);
+            throw new ValidationException("Окончание окна должно быть позже его начала.");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            log.warn("Item с id = {} не найден", itemId);
+            throw new NotFoundException("Item с id = " + itemId + " не найдена.");
+        }
+        List<BookingPeriod> periods = bookingRepository.findApprovedPeriodsInWindow(itemId, from, to);
+
+        return buildAvailability(itemId, from, to, periods);
+    }
+
+    @Override
+    public Collection<ItemDto> searchItem(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
         if (text == null || text.trim().isEmpty()) {
             return List.of();
         }
-        return itemRepository.searchItem(text).stream()
-                .map(ItemMapper::mapToItemDto)
-                .collect(Collectors.toList());
+        if (from < 0 || size < 1) {
+            log.warn("Запрошено окно поиска from = {}, size = {}", from, size);
+            throw new ValidationException("Параметр from не может быть отрицательным, а size должен быть больше нуля.");
+        }
+        if ((start == null) != (end == null) || start != null && !end.isAfter(start)) {
+            log.warn("Запрошен период поиска start = {}, end = {}", start, end);
+            throw new ValidationException("Период поиска задается параметрами start и end, end должен быть позже start.");
+        }
+        ItemSearchQuery query = ItemSearchQuery.builder()
+                .text(text.trim())
+                .start(start)
+                .end(end)
+                .from(from)
+                .size(size)
+                .build();
+
+        return itemSearchEngine.search(query);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public CommentDto createComment(Long itemId, NewCommentRequest newComment, Long authorId) {
         Item item = validateItem(itemId);
         User author = validateUser(authorId);
@@ -151,14 +216,125 @@ public class ItemServiceImpl implements ItemService {
                 .createdDate(newComment.getCreated())
                 .build();
 
-        Comment createdComment = commentRepository.save(comment);
+        Comment createdComment = groupCommitWriter.insert(comment, this::recheckComment);
+        CommentDto createdCommentDto = CommentMapper.mapToCommentDto(createdComment);
+        eventPublisher.publishEvent(new CommentCreatedEvent(createdCommentDto));
+
+        return createdCommentDto;
+    }
+
+    /**
+     * Владелец проверяется один раз на весь импорт. Строки сохраняются пачками по размеру пакета JDBC,
+     * каждая пачка в своей транзакции, и ее результаты отдаются сразу после фиксации. Вне транзакции
+     * вызывающего контекст после пачки очищается: с open-in-view транзакции пачек идут в одном
+     * EntityManager запроса, и без очистки в нем копились бы все импортированные вещи.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void importItems(Long ownerId, Iterator<ItemImportLine> lines,
+                            Consumer<List<ItemImportResultDto>> results) {
+        User owner = validateUser(ownerId);
+        List<ItemImportLine> chunk = new ArrayList<>(IMPORT_BATCH_SIZE);
+        int imported = 0;
+        while (lines.hasNext()) {
+            chunk.add(lines.next());
+            if (chunk.size() == IMPORT_BATCH_SIZE || !lines.hasNext()) {
+                List<ItemImportResultDto> chunkResults = importChunk(owner, chunk);
+                if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                    entityManager.clear();
+                }
+                imported += (int) chunkResults.stream().filter(result -> result.getId() != null).count();
+                results.accept(chunkResults);
+                chunk.clear();
+            }
+        }
+        log.debug("Импорт вещей владельца с id = {} завершен, добавлено: {}", ownerId, imported);
+    }
+
+    private List<ItemImportResultDto> importChunk(User owner, List<ItemImportLine> chunk) {
+        ItemImportResultDto[] results = new ItemImportResultDto[chunk.size()];
+        Map<Long, ItemRequest> requests = findImportedRequests(chunk);
+        List<Item> items = new ArrayList<>(chunk.size());
+        List<Integer> positions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ItemImportLine line = chunk.get(i);
+            String error = line.getError() != null ? line.getError() : validateImportedItem(line.getItem(), requests);
+            if (error != null) {
+                results[i] = ItemImportResultDto.failed(line.getLine(), error);
+                continue;
+            }
+            NewItemDto newItem = line.getItem();
+            items.add(Item.builder()
+                    .name(newItem.getName())
+                    .description(newItem.getDescription())
+                    .available(newItem.getAvailable())
+                    .owner(owner)
+                    .request(newItem.getRequestId() != null ? requests.get(newItem.getRequestId()) : null)
+                    .build());
+            positions.add(i);
+        }
+
+        if (!items.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    itemRepository.saveAll(items);
+                    items.forEach(item -> eventPublisher.publishEvent(
+                            new ItemChangedEvent(ItemMapper.mapToItemDto(item), requestId(item))));
+                });
+                for (int i = 0; i < items.size(); i++) {
+                    int position = positions.get(i);
+                    results[position] = ItemImportResultDto.created(chunk.get(position).getLine(),
+                            items.get(i).getId());
+                }
+            } catch (DataAccessException exception) {
+                log.warn("Пачка импорта из {} вещей не сохранена: {}", items.size(), exception.getMessage());
+                positions.forEach(position -> results[position] = ItemImportResultDto.failed(
+                        chunk.get(position).getLine(), "Не удалось сохранить вещь."));
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private Map<Long, ItemRequest> findImportedRequests(List<ItemImportLine> chunk) {
+        Set<Long> requestIds = chunk.stream()
+                .map(ItemImportLine::getItem)
+                .filter(item -> item != null && item.getRequestId() != null)
+                .map(NewItemDto::getRequestId)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRequestRepository.findAllById(requestIds)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
 
-        return CommentMapper.mapToCommentDto(createdComment);
+    private String validateImportedItem(NewItemDto item, Map<Long, ItemRequest> requests) {
+        if (item == null) {
+            return "Пустая запись.";
+        }
+        Set<ConstraintViolation<NewItemDto>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" "));
+        }
+        if (item.getRequestId() != null && !requests.containsKey(item.getRequestId())) {
+            return "Запрос вещи с id = " + item.getRequestId() + " не найден.";
+        }
+        return null;
     }
 
     private User validateUser(Long userId) {
+        if (userBloomFilter.isAbsent(userId)) {
+            log.warn("Пользователь с id = {} не найден", userId);
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден.");
+        }
         return userRepository.findById(userId)
                 .orElseThrow(() -> {
+                    userBloomFilter.recordIdFalsePositive();
                     log.warn("Пользователь с id = {} не найден", userId);
                     return new NotFoundException("Пользователь с id = " + userId + " не найден.");
                 });
@@ -172,6 +348,23 @@ public class ItemServiceImpl implements ItemService {
                 });
     }
 
+    /**
+     * Повтор проверок в транзакции групповой записи запросами к базе: за время ожидания в очереди
+     * автора или вещь могли удалить.
+     */
+    private void recheckComment(Comment comment) {
+        Long authorId = comment.getAuthor().getId();
+        Long itemId = comment.getItem().getId();
+        if (!userRepository.existsById(authorId)) {
+            log.warn("Пользователь с id = {} удален до сохранения комментария", authorId);
+            throw new NotFoundException("Пользователь с id = " + authorId + " не найден.");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            log.warn("Item с id = {} удален до сохранения комментария", itemId);
+            throw new NotFoundException("Item с id = " + itemId + " не найдена.");
+        }
+    }
+
     private ItemRequest validateItemRequest(Long requestId) {
         return requestId != null ? itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> {
@@ -180,55 +373,124 @@ public class ItemServiceImpl implements ItemService {
                 }) : null;
     }
 
-    private ItemWithCommentsDto convertToItemWithCommentsDto(Item item, List<Booking> itemBookings,
-                                                               List<Comment> itemComments) {
-        LocalDateTime now = LocalDateTime.now();
-        Booking lastBooking = findLastBooking(itemBookings, now);
-        Booking nextBooking = findNextBooking(itemBookings, now);
-        List<CommentDto> itemCommentsDto = itemComments
-                .stream()
-                .map(CommentMapper::mapToCommentDto)
-                .collect(Collectors.toList());
+    /**
+     * Последнее, текущее и ближайшее одобренные бронирования каждой вещи выбираются в базе оконной функцией,
+     * поэтому на вещь приходится не больше трех строк независимо от длины истории бронирований.
+     * Последним бронирование считается через минуту после конца, до этого оно текущее.
+     */
+    private Map<Long, List<BookingDto>> findLastCurrentAndNextBookings(List<Long> itemIds, LocalDateTime now) {
+        List<Long> bookingIds = bookingRepository.findLastCurrentAndNextApprovedBookingIds(
+                itemIds, now.minusMinutes(1), now);
+        if (bookingIds.isEmpty()) {
+            return Map.of();
+        }
 
-        return ItemMapper.mapToItemWithCommentsDto(
-                item,
-                itemCommentsDto,
-                lastBooking != null ? BookingMapper.mapToBookingDto(lastBooking) : null,
-                nextBooking != null ? BookingMapper.mapToBookingDto(nextBooking) : null
-        );
+        return bookingRepository.findBookingDtosByIdIn(bookingIds)
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.toList()
+                ));
     }
 
-    private Booking findLastBooking(List<Booking> itemBookings, LocalDateTime now) {
-        if (itemBookings == null) {
-            log.warn("Список бронирований null");
-            itemBookings = List.of();
+    /**
+     * Один проход по периодам, отсортированным по началу: пересекающиеся и смежные периоды
+     * сливаются в занятый интервал, промежутки между ними попадают в свободные.
+     */
+    static ItemAvailabilityDto buildAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                 List<BookingPeriod> periods) {
+        List<TimeIntervalDto> busy = new ArrayList<>();
+        List<TimeIntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        LocalDateTime busyStart = null;
+        LocalDateTime busyEnd = null;
+
+        for (BookingPeriod period : periods) {
+            LocalDateTime start = period.getStart().isBefore(from) ? from : period.getStart();
+            LocalDateTime end = period.getEnd().isAfter(to) ? to : period.getEnd();
+            if (busyEnd != null && !start.isAfter(busyEnd)) {
+                if (end.isAfter(busyEnd)) {
+                    busyEnd = end;
+                }
+                continue;
+            }
+            if (busyEnd != null) {
+                busy.add(new TimeIntervalDto(busyStart, busyEnd));
+                cursor = busyEnd;
+            }
+            if (start.isAfter(cursor)) {
+                free.add(new TimeIntervalDto(cursor, start));
+            }
+            busyStart = start;
+            busyEnd = end;
+        }
+        if (busyEnd != null) {
+            busy.add(new TimeIntervalDto(busyStart, busyEnd));
+            cursor = busyEnd;
+        }
+        if (to.isAfter(cursor)) {
+            free.add(new TimeIntervalDto(cursor, to));
         }
 
-        return itemBookings.stream()
-                .filter(booking -> booking.getEnd().isBefore(now.minusMinutes(1)))
-                .filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                .max(Comparator.comparing(Booking::getEnd))
-                .orElse(null);
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
     }
 
-    private Booking findNextBooking(List<Booking> itemBookings, LocalDateTime now) {
-        if (itemBookings == null) {
-            log.warn("Список бронирований null");
-            itemBookings = List.of();
+    /**
+     * Карточка вещи устаревает сама, когда начинается ближайшее бронирование или текущее становится
+     * последним, поэтому оба момента ограничивают срок жизни записи. В карточку входят данные владельца,
+     * авторов отзывов и арендаторов.
+     */
+    private ViewCache.View<ItemWithCommentsDto> loadItemView(Long itemId) {
+        Item item = validateItem(itemId);
+        List<Comment> allComments = commentRepository.findByItemId(itemId);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<BookingDto>> bookingsByItemId = findLastCurrentAndNextBookings(List.of(itemId), now);
+        List<BookingDto> itemBookings = bookingsByItemId.getOrDefault(itemId, List.of());
+        ItemWithCommentsDto itemView = convertToItemWithCommentsDto(item, itemBookings, allComments, now);
+
+        Set<Long> userIds = new HashSet<>();
+        userIds.add(item.getOwner().getId());
+        allComments.forEach(comment -> userIds.add(comment.getAuthor().getId()));
+        itemBookings.forEach(booking -> userIds.add(booking.getBooker().getId()));
+        LocalDateTime validUntil = itemView.getNextBooking() != null ? itemView.getNextBooking().getStart() : null;
+        for (BookingDto booking : itemBookings) {
+            LocalDateTime becomesLast = booking.getEnd().plusMinutes(1);
+            if (isCurrent(booking, now) && (validUntil == null || becomesLast.isBefore(validUntil))) {
+                validUntil = becomesLast;
+            }
         }
 
-        return itemBookings.stream()
+        return new ViewCache.View<>(itemView, userIds, validUntil);
+    }
+
+    private static Long requestId(Item item) {
+        return item.getRequest() != null ? item.getRequest().getId() : null;
+    }
+
+    private ItemWithCommentsDto convertToItemWithCommentsDto(Item item, List<BookingDto> itemBookings,
+                                                               List<Comment> itemComments, LocalDateTime now) {
+        BookingDto lastBooking = itemBookings.stream()
+                .filter(booking -> booking.getEnd().isBefore(now.minusMinutes(1)))
+                .findFirst()
+                .orElse(null);
+        BookingDto nextBooking = itemBookings.stream()
                 .filter(booking -> booking.getStart().isAfter(now))
-                .filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                .min(Comparator.comparing(Booking::getStart))
+                .findFirst()
                 .orElse(null);
+        List<CommentDto> itemCommentsDto = itemComments
+                .stream()
+                .map(CommentMapper::mapToCommentDto)
+                .collect(Collectors.toList());
+
+        return ItemMapper.mapToItemWithCommentsDto(item, itemCommentsDto, lastBooking, nextBooking);
     }
 
-    private Map<Long, List<Booking>> groupBookingsByItemId(List<Booking> allBookings) {
-        return allBookings
-                .stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.toList()
-                ));
+    private static boolean isCurrent(BookingDto booking, LocalDateTime now) {
+        return !booking.getStart().isAfter(now) && !booking.getEnd().isBefore(now.minusMinutes(1));
     }
 
     private Map<Long, List<Comment>> groupCommentsByItemId(List<Comment> allComments) {
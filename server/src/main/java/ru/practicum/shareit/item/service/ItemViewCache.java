@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.service.BookingChangedEvent;
+import ru.practicum.shareit.cache.ViewCache;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import java.time.Duration;
+
+/**
+ * Карточки вещей с отзывами и ближайшими бронированиями. Карточка сбрасывается после фиксации
+ * изменения самой вещи, ее бронирований, нового отзыва и изменения участвующих в ней пользователей.
+ */
+@Component
+public class ItemViewCache extends ViewCache<ItemWithCommentsDto> {
+
+    public ItemViewCache(MeterRegistry meterRegistry,
+                         @Value("${shareit.view-cache.ttl:PT5M}") Duration ttl,
+                         @Value("${shareit.view-cache.max-size:10000}") long maxSize) {
+        super("item.views", meterRegistry, ttl, maxSize);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        evict(event.getItem().getId());
+    }
+
+    /**
+     * Созданное бронирование публикуется после групповой фиксации, вне транзакции.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        evict(event.getBooking().getItem().getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        evict(event.getComment().getItemId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.getUserId());
+    }
+}
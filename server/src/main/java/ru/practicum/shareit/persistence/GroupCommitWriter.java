@@ -0,0 +1,239 @@
+package ru.practicum.shareit.persistence;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Групповая запись новых сущностей. Вставки из параллельных запросов складываются в ограниченную
+ * кольцевую очередь, которую разбирает один поток: все, что накопилось за время предыдущей фиксации,
+ * а также пришедшее за короткое ожидание max-wait после первой вставки, записывается одной транзакцией
+ * с одной фиксацией. Если пачка не записалась, ее записи повторяются по одной, чтобы ошибка одной
+ * вставки не отменяла остальные.
+ */
+@Component
+@Slf4j
+public class GroupCommitWriter {
+    private final BlockingQueue<Entry<?>> queue;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final TransactionTemplate transactionTemplate;
+    private final HibernateJpaDialect jpaDialect = new HibernateJpaDialect();
+    private final DistributionSummary batchSizes;
+    private final Thread worker;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    public GroupCommitWriter(PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.write.queue-capacity:1024}") int queueCapacity,
+                             @Value("${shareit.write.max-batch-size:64}") int maxBatchSize,
+                             @Value("${shareit.write.max-wait:PT0.002S}") Duration maxWait) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("shareit.write.queue.depth", queue, BlockingQueue::size)
+                .description("Вставки, ожидающие групповой фиксации")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("shareit.write.batch.size")
+                .description("Число вставок в одной фиксации")
+                .register(meterRegistry);
+        this.worker = Thread.ofPlatform()
+                .name("group-commit-writer")
+                .daemon()
+                .start(this::drain);
+    }
+
+    public <T> T insert(T entity) {
+        return insert(entity, ignored -> {
+        });
+    }
+
+    /**
+     * Сохраняет новую сущность и возвращает ее с присвоенным id. Проверка выполняется в транзакции записи
+     * прямо перед вставкой: то, что вызывающий проверил до постановки в очередь, могло измениться.
+     * Внутри уже открытой транзакции сущность сохраняется в ней, чтобы вставка откатывалась вместе
+     * с остальной работой вызывающего.
+     */
+    public <T> T insert(T entity, Consumer<? super T> check) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            check.accept(entity);
+            entityManager.persist(entity);
+            return entity;
+        }
+        try {
+            return submit(entity, check).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Ставит сущность в очередь. Будущее завершается после фиксации пачки, в которую она попала.
+     * При заполненной очереди вызывающий ждет, пока в ней освободится место.
+     */
+    public <T> CompletableFuture<T> submit(T entity) {
+        return submit(entity, ignored -> {
+        });
+    }
+
+    public <T> CompletableFuture<T> submit(T entity, Consumer<? super T> check) {
+        Entry<T> entry = new Entry<>(entity, check);
+        try {
+            queue.put(entry);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            entry.result.completeExceptionally(exception);
+        }
+        return entry.result;
+    }
+
+    private void drain() {
+        List<Entry<?>> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                fill(batch);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            if (!batch.isEmpty()) {
+                batchSizes.record(batch.size());
+                write(batch);
+                batch.clear();
+            }
+        }
+        queue.forEach(entry -> entry.result.completeExceptionally(
+                new IllegalStateException("Запись остановлена до сохранения сущности.")));
+    }
+
+    /**
+     * Добирает пачку до max-batch-size, ожидая новые вставки не дольше max-wait с момента первой.
+     */
+    private void fill(List<Entry<?>> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Entry<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void write(List<Entry<?>> batch) {
+        try {
+            persist(batch);
+            batch.forEach(Entry::complete);
+        } catch (RuntimeException exception) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(exception);
+                return;
+            }
+            log.warn("Групповая запись {} сущностей не удалась, повтор по одной: {}", batch.size(),
+                    exception.getMessage());
+            batch.forEach(this::writeSingle);
+        }
+    }
+
+    private void writeSingle(Entry<?> entry) {
+        try {
+            persist(List.of(entry));
+            entry.complete();
+        } catch (RuntimeException exception) {
+            entry.result.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * При откате у сущностей остаются присвоенные id, с ними повторный persist принял бы их
+     * за отсоединенные. Поэтому после неудачи id сбрасываются.
+     */
+    private void persist(List<Entry<?>> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Entry<?> entry : batch) {
+                    entry.check();
+                    entityManager.persist(entry.entity);
+                }
+                entityManager.flush();
+            });
+        } catch (RuntimeException exception) {
+            resetIdentifiers(batch);
+            DataAccessException translated = jpaDialect.translateExceptionIfPossible(exception);
+            throw translated != null ? translated : exception;
+        }
+    }
+
+    private void resetIdentifiers(List<Entry<?>> batch) {
+        MappingMetamodel metamodel = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel();
+        for (Entry<?> entry : batch) {
+            metamodel.getEntityDescriptor(entry.entity.getClass()).setIdentifier(entry.entity, null, null);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worker.interrupt();
+        worker.join();
+    }
+
+    private static final class Entry<T> {
+        private final T entity;
+        private final Consumer<? super T> check;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Entry(T entity, Consumer<? super T> check) {
+            this.entity = entity;
+            this.check = check;
+        }
+
+        private void check() {
+            check.accept(entity);
+        }
+
+        private void complete() {
+            result.complete(entity);
+        }
+    }
+}
@@ -4,11 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.ViewCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForItemRequestDto;
-import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -16,10 +15,13 @@ import ru.practicum.shareit.request.dto.NewItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserBloomFilter;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,7 +31,9 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserBloomFilter userBloomFilter;
     private final ItemRepository itemRepository;
+    private final ItemRequestViewCache itemRequestViewCache;
 
     @Transactional
     @Override
@@ -61,7 +65,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .map(ItemRequest::getId)
                 .toList();
 
-        List<Item> items = itemRepository.findByRequestIdIn(itemRequestsIds);
+        List<ItemForItemRequestDto> items = itemRepository.findItemsForRequests(itemRequestsIds);
 
         return createAndSortedListItemRequestDto(itemRequests, items);
     }
@@ -80,25 +84,36 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<Long> requestIds = otherUserRequests.stream()
                 .map(ItemRequest::getId)
                 .toList();
-        List<Item> items = itemRepository.findByRequestIdIn(requestIds);
+        List<ItemForItemRequestDto> items = itemRepository.findItemsForRequests(requestIds);
 
         return createAndSortedListItemRequestDto(otherUserRequests, items);
     }
 
     @Override
     public ItemRequestDto getItemRequestById(Long requestId) {
+        return itemRequestViewCache.get(requestId, this::loadItemRequestView);
+    }
+
+    private ViewCache.View<ItemRequestDto> loadItemRequestView(Long requestId) {
         ItemRequest itemRequest = validateItemRequest(requestId);
-        List<ItemForItemRequestDto> itemsByItemRequest =
-                itemRepository.findByRequestId(requestId).stream()
-                        .map(ItemMapper::mapToItemForItemRequestDto)
-                        .toList();
+        List<ItemForItemRequestDto> itemsByItemRequest = itemRepository.findItemsForRequest(requestId);
 
-        return ItemRequestMapper.mapToItemRequestDto(itemRequest, itemsByItemRequest);
+        Set<Long> userIds = new HashSet<>();
+        userIds.add(itemRequest.getRequester().getId());
+        itemsByItemRequest.forEach(item -> userIds.add(item.getOwnerId()));
+
+        return new ViewCache.View<>(ItemRequestMapper.mapToItemRequestDto(itemRequest, itemsByItemRequest),
+                userIds, null);
     }
 
     private User validateUser(Long userId) {
+        if (userBloomFilter.isAbsent(userId)) {
+            log.warn("Пользователь с id = {} не найден", userId);
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден.");
+        }
         return userRepository.findById(userId)
                 .orElseThrow(() -> {
+                    userBloomFilter.recordIdFalsePositive();
                     log.warn("Пользователь с id = {} не найден", userId);
                     return new NotFoundException("Пользователь с id = " + userId + " не найден.");
                 });
@@ -113,7 +128,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private List<ItemRequestDto> createAndSortedListItemRequestDto(List<ItemRequest> itemRequests,
-                                                                   List<Item> items) {
+                                                                   List<ItemForItemRequestDto> items) {
         Map<Long, List<ItemForItemRequestDto>> itemsMap = groupItemsByRequestId(items);
 
         return itemRequests.stream()
@@ -124,14 +139,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .collect(Collectors.toList());
     }
 
-    private Map<Long, List<ItemForItemRequestDto>> groupItemsByRequestId(List<Item> items) {
+    private Map<Long, List<ItemForItemRequestDto>> groupItemsByRequestId(List<ItemForItemRequestDto> items) {
         return items.stream()
-                .filter(item -> item.getRequest() != null)
-                .collect(Collectors.groupingBy(
-                        item -> item.getRequest().getId(),
-                        Collectors.mapping(ItemMapper::mapToItemForItemRequestDto,
-                                Collectors.toList()
-                        )
-                ));
+                .filter(item -> item.getRequestId() != null)
+                .collect(Collectors.groupingBy(ItemForItemRequestDto::getRequestId));
     }
 }
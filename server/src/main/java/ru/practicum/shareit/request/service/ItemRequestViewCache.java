@@ -0,0 +1,39 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.cache.ViewCache;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import java.time.Duration;
+
+/**
+ * Запросы вещей вместе с добавленными по ним вещами. Запрос сбрасывается после фиксации изменения
+ * вещи, добавленной по нему, и изменения автора запроса или владельцев этих вещей.
+ */
+@Component
+public class ItemRequestViewCache extends ViewCache<ItemRequestDto> {
+
+    public ItemRequestViewCache(MeterRegistry meterRegistry,
+                                @Value("${shareit.view-cache.ttl:PT5M}") Duration ttl,
+                                @Value("${shareit.view-cache.max-size:10000}") long maxSize) {
+        super("item.request.views", meterRegistry, ttl, maxSize);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getRequestId() != null) {
+            evict(event.getRequestId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.getUserId());
+    }
+}
@@ -1,9 +1,18 @@
 package ru.practicum.shareit.user.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.User;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
+
+    @Query("select u.id from User u")
+    List<Long> findAllIds();
+
+    @Query("select u.email from User u")
+    List<String> findAllEmails();
 }
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фильтры Блума по id и email существующих пользователей. Отрицательный ответ точный и позволяет
+ * не ходить в базу: пользователя с таким id нет, email свободен. Пользователь попадает в фильтры
+ * при persist и при сбросе изменений, до фиксации транзакции, а существовавшие до старта загружаются из базы.
+ * Пока загрузка не закончилась, отрицательных ответов нет. Удаление из фильтра невозможно, поэтому
+ * удаленные пользователи и старые email дают ложноположительные ответы, их доля публикуется метрикой.
+ * Фильтр видит только вставки этого процесса: при нескольких экземплярах сервера над одной базой
+ * или вставках в обход Hibernate он ответит 404 на существующего пользователя. Поэтому фильтр
+ * включается явно через shareit.user-filter.enabled и только для единственного экземпляра сервера,
+ * выключенный фильтр отрицательных ответов не дает и все проверки идут в базу.
+ */
+@Component
+@Slf4j
+public class UserBloomFilter {
+    private final ObjectProvider<UserRepository> userRepository;
+    private final Filter ids;
+    private final Filter emails;
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    public UserBloomFilter(ObjectProvider<UserRepository> userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.user-filter.enabled:false}") boolean enabled,
+                           @Value("${shareit.user-filter.expected-users:100000}") long expectedUsers,
+                           @Value("${shareit.user-filter.false-positive-probability:0.01}") double probability) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.ids = new Filter("id", expectedUsers, probability, meterRegistry);
+        this.emails = new Filter("email", expectedUsers, probability, meterRegistry);
+    }
+
+    /**
+     * Репозиторий берется лениво: фильтр нужен перехватчику Hibernate, который создается
+     * вместе с фабрикой EntityManager, раньше репозиториев.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Фильтры пользователей выключены, проверки идут в базу.");
+            return;
+        }
+        UserRepository users = userRepository.getObject();
+        users.findAllIds().forEach(ids.bloom::put);
+        users.findAllEmails().forEach(email -> emails.bloom.put(BloomFilter.fingerprint(email)));
+        ready = true;
+        log.info("Фильтры пользователей загружены.");
+    }
+
+    public void add(Long userId, String email) {
+        if (!enabled) {
+            return;
+        }
+        ids.bloom.put(userId);
+        if (email != null) {
+            emails.bloom.put(BloomFilter.fingerprint(email));
+        }
+    }
+
+    /**
+     * true, только если пользователя с таким id точно нет.
+     */
+    public boolean isAbsent(Long userId) {
+        return ids.isAbsent(ready && !ids.bloom.mightContain(userId));
+    }
+
+    /**
+     * true, только если email точно не занят.
+     */
+    public boolean isEmailAbsent(String email) {
+        return emails.isAbsent(ready && !emails.bloom.mightContain(BloomFilter.fingerprint(email)));
+    }
+
+    /**
+     * Фильтр ответил «возможно есть», а в базе пользователя не оказалось.
+     */
+    public void recordIdFalsePositive() {
+        ids.falsePositives.incrementAndGet();
+    }
+
+    /**
+     * Фильтр ответил «возможно занят», а в базе email свободен.
+     */
+    public void recordEmailFalsePositive() {
+        emails.falsePositives.incrementAndGet();
+    }
+
+    private static final class Filter {
+        private final BloomFilter bloom;
+        private final AtomicLong negatives = new AtomicLong();
+        private final AtomicLong falsePositives = new AtomicLong();
+
+        private Filter(String name, long expectedInsertions, double probability, MeterRegistry meterRegistry) {
+            this.bloom = new BloomFilter(expectedInsertions, probability);
+            FunctionCounter.builder("shareit.user.filter.rejections", negatives, AtomicLong::get)
+                    .description("Проверки, отвеченные фильтром без обращения к базе")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+            FunctionCounter.builder("shareit.user.filter.false.positives", falsePositives, AtomicLong::get)
+                    .description("Положительные ответы фильтра, не подтвержденные базой")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.user.filter.false.positive.rate", this, Filter::falsePositiveRate)
+                    .description("Доля ложноположительных ответов среди проверок отсутствующих значений")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+        }
+
+        private boolean isAbsent(boolean absent) {
+            if (absent) {
+                negatives.incrementAndGet();
+            }
+            return absent;
+        }
+
+        private double falsePositiveRate() {
+            long positives = falsePositives.get();
+            long total = positives + negatives.get();
+            return total == 0 ? 0 : (double) positives / total;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.User;
+
+import java.util.Map;
+
+/**
+ * Добавляет пользователя в фильтры, кто бы его ни сохранял. Колбэк JPA @PostPersist срабатывает
+ * только после вставки при сбросе, а до него в той же транзакции фильтр считал бы пользователя
+ * несуществующим. onSave вызывается сразу при persist, когда id уже выдан последовательностью.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserBloomFilterInterceptor implements Interceptor, HibernatePropertiesCustomizer {
+    private final UserBloomFilter userBloomFilter;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.INTERCEPTOR, this);
+    }
+
+    @Override
+    public boolean onSave(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        if (entity instanceof User user) {
+            userBloomFilter.add((Long) id, user.getEmail());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean onFlushDirty(Object entity, Object id, Object[] currentState, Object[] previousState,
+                                String[] propertyNames, Type[] types) {
+        if (entity instanceof User user) {
+            userBloomFilter.add((Long) id, user.getEmail());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Публикуется при изменении и удалении пользователя. Слушатели получают его после фиксации транзакции.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserChangedEvent {
+    private final Long userId;
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ConflictException;
@@ -22,13 +23,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserBloomFilter userBloomFilter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public UserDto createUser(NewUserRequest newUser) {
-        if (userRepository.existsByEmail(newUser.getEmail())) {
-            throw new ConflictException("Данный email уже существует!");
-        }
+        validateEmailIsFree(newUser.getEmail());
         User user = User.builder()
                 .name(newUser.getName())
                 .email(newUser.getEmail())
@@ -44,13 +45,14 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto updateUser(Long userId, UpdateUserRequest newUser) {
         User user = validateUser(userId);
-        if (newUser.getEmail() != null && userRepository.existsByEmail(newUser.getEmail())) {
-            throw new ConflictException("Данный email уже существует!");
+        if (newUser.getEmail() != null) {
+            validateEmailIsFree(newUser.getEmail());
         }
         User updateUser = UserMapper.updateUserFields(user, newUser);
 
         User updatedUser = userRepository.save(updateUser);
         log.debug("Данные пользователя с id = {} успешно обновлены.", userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
 
         return UserMapper.mapToUserDto(updatedUser);
     }
@@ -73,11 +75,31 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
         log.debug("Пользователь с id = {} успешно удален.", userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+    }
+
+    /**
+     * Проверка заранее дает понятную ошибку, но гонку двух вставок не закрывает: ее решает
+     * уникальный индекс, нарушение которого возвращается как 409.
+     */
+    private void validateEmailIsFree(String email) {
+        if (userBloomFilter.isEmailAbsent(email)) {
+            return;
+        }
+        if (userRepository.existsByEmail(email)) {
+            throw new ConflictException("Данный email уже существует!");
+        }
+        userBloomFilter.recordEmailFalsePositive();
     }
 
     private User validateUser(Long userId) {
+        if (userBloomFilter.isAbsent(userId)) {
+            log.warn("Пользователь с id = {} не найден", userId);
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден.");
+        }
         return userRepository.findById(userId)
                 .orElseThrow(() -> {
+                    userBloomFilter.recordIdFalsePositive();
                     log.warn("Пользователь с id = {} не найден", userId);
                     return new NotFoundException("Пользователь с id = " + userId + " не найден.");
                 });
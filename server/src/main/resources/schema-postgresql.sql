@@ -0,0 +1,67 @@
+DO '
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[''users'', ''requests'', ''items'', ''bookings'', ''comments''] LOOP
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = t
+                     AND column_name = ''id'' AND is_identity = ''YES'') THEN
+            EXECUTE format(''ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS'', t);
+            EXECUTE format(''SELECT setval(%L, (SELECT coalesce(max(id), 0) + 1 FROM %I), false)'', t || ''_seq'', t);
+        END IF;
+    END LOOP;
+END';
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce("name", '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin ("name" gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (description gin_trgm_ops);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- До ограничения подтверждение не проверяло пересечения, и в базе могут быть пересекающиеся
+-- подтвержденные бронирования одной вещи. Из каждой такой пары остается более раннее по id,
+-- более позднее отклоняется: иначе ALTER TABLE упадет и сервер не запустится.
+DO '
+DECLARE
+    candidate int8;
+    rejected int8 := 0;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = ''bookings_approved_no_overlap''
+                     AND conrelid = to_regclass(''bookings'')) THEN
+        FOR candidate IN
+            SELECT DISTINCT later.id
+            FROM bookings AS later
+            JOIN bookings AS earlier ON earlier.item_id = later.item_id AND earlier.id < later.id
+            WHERE later.status = ''APPROVED'' AND earlier.status = ''APPROVED''
+              AND tsrange(earlier.start_date, earlier.end_date) && tsrange(later.start_date, later.end_date)
+            ORDER BY later.id
+        LOOP
+            UPDATE bookings AS later SET status = ''REJECTED''
+            WHERE later.id = candidate
+              AND EXISTS (SELECT 1 FROM bookings AS earlier
+                          WHERE earlier.item_id = later.item_id AND earlier.id < later.id
+                            AND earlier.status = ''APPROVED''
+                            AND tsrange(earlier.start_date, earlier.end_date)
+                                && tsrange(later.start_date, later.end_date));
+            IF FOUND THEN
+                rejected := rejected + 1;
+                RAISE WARNING ''Бронирование % пересекалось с более ранним подтвержденным и отклонено'', candidate;
+            END IF;
+        END LOOP;
+        IF rejected > 0 THEN
+            RAISE WARNING ''Перед созданием bookings_approved_no_overlap отклонено бронирований: %'', rejected;
+        END IF;
+        ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+END';
@@ -1,5 +1,7 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-	id int8 GENERATED ALWAYS AS IDENTITY NOT NULL,
+	id int8 NOT NULL,
 	"name" varchar NOT NULL,
 	email varchar NOT NULL,
 	CONSTRAINT users_pk PRIMARY KEY (id),
@@ -8,8 +10,10 @@ CREATE TABLE IF NOT EXISTS users (
 
 CREATE UNIQUE INDEX IF NOT EXISTS idx_users_email ON users(email);
 
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS requests (
-	id int8 GENERATED ALWAYS AS IDENTITY NOT NULL,
+	id int8 NOT NULL,
 	description varchar(255) NOT NULL,
 	requester_id int8 NOT NULL,
 	created_date timestamp NOT NULL,
@@ -17,8 +21,10 @@ CREATE TABLE IF NOT EXISTS requests (
 	CONSTRAINT requests_users_fk FOREIGN KEY (requester_id) REFERENCES users(id)
 );
 
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items (
-	id int8 GENERATED ALWAYS AS IDENTITY NOT NULL,
+	id int8 NOT NULL,
 	"name" varchar NOT NULL,
 	description varchar(255) NOT NULL,
 	is_available bool NOT NULL,
@@ -34,10 +40,14 @@ CREATE TABLE IF NOT EXISTS items (
 	    REFERENCES users(id)
 );
 
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version int8 NOT NULL DEFAULT 0;
+
 CREATE INDEX IF NOT EXISTS idx_items_owner ON items(owner_id);
 
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings (
-	id int8 GENERATED ALWAYS AS IDENTITY NOT NULL,
+	id int8 NOT NULL,
 	start_date timestamp NOT NULL,
 	end_date timestamp NOT NULL,
 	booker_id int8 NOT NULL,
@@ -50,12 +60,25 @@ CREATE TABLE IF NOT EXISTS bookings (
 	CONSTRAINT bookings_users_fk FOREIGN KEY (booker_id) REFERENCES users(id)
 );
 
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version int8 NOT NULL DEFAULT 0;
+
 CREATE INDEX IF NOT EXISTS idx_bookings_item_status_dates ON bookings(item_id, status, start_date, end_date);
 CREATE INDEX IF NOT EXISTS idx_bookings_booker_status ON bookings(booker_id, status);
 CREATE INDEX IF NOT EXISTS idx_bookings_item_id ON bookings(item_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_end ON bookings(booker_id, start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings(booker_id, start_date DESC, id DESC);
+DROP INDEX IF EXISTS idx_bookings_item_start_id;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id int8 NULL;
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items AS i WHERE i.id = bookings.item_id)
+WHERE owner_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start_id ON bookings(owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings(item_id, status, end_date DESC, id DESC);
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS "comments" (
-	id int8 GENERATED ALWAYS AS IDENTITY NOT NULL,
+	id int8 NOT NULL,
 	"text" varchar(500) NOT NULL,
 	author_id int8 NOT NULL,
 	item_id int8 NOT NULL,
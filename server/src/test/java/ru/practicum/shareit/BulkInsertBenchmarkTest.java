@@ -0,0 +1,178 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Массовая вставка: id берутся блоками из последовательностей, строки уходят пачками JDBC,
+ * поэтому число подготовленных запросов растет с числом пачек, а не строк. Замер сравнивает
+ * пачки с прежней вставкой по одной строке за обращение к базе, как было с IDENTITY.
+ */
+@SpringBootTest
+@Transactional
+@Slf4j
+class BulkInsertBenchmarkTest {
+    private static final int ROWS = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Statistics statistics;
+    private User user;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        user = userRepository.save(User.builder().name("bulk").email("bulk-insert@test.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Палатка")
+                .description("Четырехместная")
+                .available(true)
+                .owner(user)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void saveAll_whenManyRows_thenInsertedInJdbcBatches() {
+        List<Booking> bookings = bookings(ROWS);
+        List<Comment> comments = comments(ROWS);
+
+        statistics.clear();
+        long startedAt = System.nanoTime();
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+        entityManager.flush();
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        log.info("Вставлено {} строк за {} мс, подготовленных запросов: {}", 2 * ROWS, elapsedMillis, statements);
+        long batches = 2L * ROWS / BATCH_SIZE;
+        long sequenceCalls = 2L * ROWS / BATCH_SIZE + 2;
+        assertThat(statements).isLessThanOrEqualTo(batches + sequenceCalls);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2L * ROWS);
+    }
+
+    @Test
+    void persist_whenBatchedInsteadOfRowByRow_thenThroughputMeasured() {
+        persistRowByRow(bookings(ROWS / 10));
+        persistBatched(bookings(ROWS / 10));
+
+        long rowByRowNanos = persistRowByRow(bookings(ROWS));
+        long rowByRowStatements = statistics.getPrepareStatementCount();
+        long batchedNanos = persistBatched(bookings(ROWS));
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        log.info("Вставка {} бронирований: по одной строке {} строк/с ({} запросов), пачками {} строк/с ({} запросов)",
+                ROWS, rowsPerSecond(rowByRowNanos), rowByRowStatements,
+                rowsPerSecond(batchedNanos), batchedStatements);
+        assertThat(rowByRowStatements).isGreaterThanOrEqualTo(ROWS);
+        assertThat(batchedStatements).isLessThanOrEqualTo(2L * ROWS / BATCH_SIZE + 1);
+    }
+
+    private long persistRowByRow(List<Booking> bookings) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(1);
+        try {
+            return timed(() -> bookings.forEach(booking -> {
+                entityManager.persist(booking);
+                entityManager.flush();
+                entityManager.detach(booking);
+            }));
+        } finally {
+            session.setJdbcBatchSize(null);
+        }
+    }
+
+    private long persistBatched(List<Booking> bookings) {
+        return timed(() -> {
+            bookings.forEach(entityManager::persist);
+            entityManager.flush();
+        });
+    }
+
+    private long timed(Runnable insert) {
+        entityManager.clear();
+        statistics.clear();
+        long startedAt = System.nanoTime();
+        insert.run();
+        long elapsed = System.nanoTime() - startedAt;
+        entityManager.clear();
+        return elapsed;
+    }
+
+    private static long rowsPerSecond(long nanos) {
+        return ROWS * 1_000_000_000L / nanos;
+    }
+
+    private List<Booking> bookings(int rows) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            bookings.add(Booking.builder()
+                    .booker(user)
+                    .item(item)
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        return bookings;
+    }
+
+    private List<Comment> comments(int rows) {
+        LocalDateTime createdDate = LocalDateTime.now();
+        List<Comment> comments = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            comments.add(Comment.builder()
+                    .text("Отзыв " + i)
+                    .author(user)
+                    .item(item)
+                    .createdDate(createdDate)
+                    .build());
+        }
+        return comments;
+    }
+}
@@ -0,0 +1,295 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что число SQL-запросов на эндпоинт не зависит от количества строк в ответе.
+ */
+@SpringBootTest
+@Transactional
+class QueryCountTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void getAllBookingsByUser_whenMoreRows_thenSameStatementCount() {
+        Fixture small = seed(2);
+        Fixture large = seed(8);
+
+        long smallCount = countStatements(() ->
+                bookingService.getAllBookingsByUser(BookingState.ALL, small.booker.getId(), null, 100));
+        long largeCount = countStatements(() ->
+                bookingService.getAllBookingsByUser(BookingState.ALL, large.booker.getId(), null, 100));
+
+        assertThat(largeCount).isEqualTo(smallCount).isEqualTo(2);
+    }
+
+    @Test
+    void getAllBookingsByItemByUserId_whenMoreRows_thenSameStatementCount() {
+        Fixture small = seed(2);
+        Fixture large = seed(8);
+
+        long smallCount = countStatements(() ->
+                bookingService.getAllBookingsByItemByUserId(BookingState.ALL, small.owner.getId(), null, 100));
+        long largeCount = countStatements(() ->
+                bookingService.getAllBookingsByItemByUserId(BookingState.ALL, large.owner.getId(), null, 100));
+
+        assertThat(largeCount).isEqualTo(smallCount).isEqualTo(2);
+    }
+
+    @Test
+    void getAllBookingsByItemByUserId_whenPagedByCursor_thenReturnOwnerBookingsAcrossItemsInOrder() {
+        Fixture fixture = seed(3);
+        List<BookingDto> all = bookingService.getAllBookingsByItemByUserId(BookingState.ALL,
+                fixture.owner.getId(), null, 100).getBookings();
+
+        List<BookingDto> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingPage page = bookingService.getAllBookingsByItemByUserId(BookingState.ALL,
+                    fixture.owner.getId(), cursor, 2);
+            paged.addAll(page.getBookings());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(all).hasSize(6)
+                .isSortedAccordingTo(Comparator.comparing(BookingDto::getStart)
+                        .thenComparing(BookingDto::getId)
+                        .reversed());
+        assertThat(paged).extracting(BookingDto::getId)
+                .containsExactlyElementsOf(all.stream().map(BookingDto::getId).toList());
+    }
+
+    @Test
+    void getBooking_thenSingleStatement() {
+        Fixture fixture = seed(2);
+
+        long count = countStatements(() ->
+                bookingService.getBooking(fixture.booking.getId(), fixture.booker.getId()));
+
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    void getItem_whenMoreRows_thenSameStatementCount() {
+        Fixture small = seed(2);
+        Fixture large = seed(8);
+
+        long smallCount = countStatements(() -> itemService.getItem(small.item.getId()));
+        long largeCount = countStatements(() -> itemService.getItem(large.item.getId()));
+
+        assertThat(largeCount).isEqualTo(smallCount).isEqualTo(4);
+    }
+
+    @Test
+    void getOwnerItems_whenMoreRows_thenSameStatementCount() {
+        Fixture small = seed(2);
+        Fixture large = seed(8);
+
+        long smallCount = countStatements(() -> itemService.getOwnerItems(small.owner.getId()));
+        long largeCount = countStatements(() -> itemService.getOwnerItems(large.owner.getId()));
+
+        assertThat(largeCount).isEqualTo(smallCount).isEqualTo(4);
+    }
+
+    @Test
+    void getOwnerItems_thenLastAndNextApprovedBookingsResolvedPerItem() {
+        Fixture fixture = seed(4);
+        Booking next = bookingRepository.save(Booking.builder()
+                .booker(fixture.booker)
+                .item(fixture.item)
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        Collection<ItemWithCommentsDto> items = itemService.getOwnerItems(fixture.owner.getId());
+
+        assertThat(items).hasSize(4).allSatisfy(item -> assertThat(item.getLastBooking()).isNotNull());
+        assertThat(items).filteredOn(item -> item.getId().equals(fixture.item.getId()))
+                .singleElement()
+                .satisfies(item -> assertThat(item.getNextBooking().getId()).isEqualTo(next.getId()));
+        assertThat(items).filteredOn(item -> !item.getId().equals(fixture.item.getId()))
+                .allSatisfy(item -> assertThat(item.getNextBooking()).isNull());
+    }
+
+    @Test
+    void getItemRequestsByRequester_whenMoreRows_thenSameStatementCount() {
+        Fixture small = seed(2);
+        Fixture large = seed(8);
+
+        long smallCount = countStatements(() ->
+                itemRequestService.getItemRequestsByRequester(small.requester.getId()));
+        long largeCount = countStatements(() ->
+                itemRequestService.getItemRequestsByRequester(large.requester.getId()));
+
+        assertThat(largeCount).isEqualTo(smallCount).isEqualTo(3);
+    }
+
+    @Test
+    void searchItem_whenMoreRows_thenSingleStatement() {
+        seed(2);
+        long smallCount = countStatements(() -> itemService.searchItem("description", null, null, 0, 20));
+        seed(8);
+        long largeCount = countStatements(() -> itemService.searchItem("description", null, null, 0, 20));
+
+        assertThat(largeCount).isEqualTo(smallCount).isEqualTo(1);
+    }
+
+    @Test
+    void getItemRequestById_thenTwoStatements() {
+        Fixture fixture = seed(2);
+        Long requestId = itemRequestRepository.findByRequesterIdOrderByCreatedDesc(fixture.requester.getId())
+                .get(0)
+                .getId();
+
+        long count = countStatements(() -> itemRequestService.getItemRequestById(requestId));
+
+        assertThat(count).isEqualTo(2);
+    }
+
+    private long countStatements(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Fixture seed(int rows) {
+        LocalDateTime now = LocalDateTime.now();
+        Fixture fixture = new Fixture();
+        fixture.owner = saveUser("owner");
+        fixture.booker = saveUser("booker");
+        fixture.requester = saveUser("requester");
+
+        for (int i = 0; i < rows; i++) {
+            User user = saveUser("user");
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("request " + i)
+                    .requester(fixture.requester)
+                    .created(now.minusDays(i))
+                    .build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .owner(fixture.owner)
+                    .request(request)
+                    .build());
+            if (fixture.item == null) {
+                fixture.item = item;
+            }
+
+            fixture.booking = bookingRepository.save(Booking.builder()
+                    .booker(fixture.booker)
+                    .item(item)
+                    .start(now.minusDays(i + 2))
+                    .end(now.minusDays(i + 1))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .booker(user)
+                    .item(fixture.item)
+                    .start(now.plusDays(i + 1))
+                    .end(now.plusDays(i + 2))
+                    .status(BookingStatus.WAITING)
+                    .build());
+            commentRepository.save(Comment.builder()
+                    .text("comment " + i)
+                    .author(user)
+                    .item(fixture.item)
+                    .createdDate(now)
+                    .build());
+        }
+        return fixture;
+    }
+
+    private User saveUser(String name) {
+        int number = SEQUENCE.incrementAndGet();
+        return userRepository.save(User.builder()
+                .name(name + number)
+                .email(name + number + "@test.com")
+                .build());
+    }
+
+    private static class Fixture {
+        private User owner;
+        private User booker;
+        private User requester;
+        private Item item;
+        private Booking booking;
+    }
+}
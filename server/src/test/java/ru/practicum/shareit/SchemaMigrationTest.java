@@ -0,0 +1,113 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Переход существующей базы PostgreSQL с IDENTITY на последовательности. Скрипты запускаются
+ * поверх старой схемы с данными дважды, как при двух перезапусках сервера. H2 блок DO не выполняет,
+ * поэтому тест нужен настоящий PostgreSQL, например из docker-compose:
+ * SHAREIT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:6541/shareit?user=shareit&amp;password=shareit
+ */
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+class SchemaMigrationTest {
+    private static final List<String> TABLES = List.of("users", "requests", "items", "bookings", "comments");
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private String schema;
+
+    @BeforeEach
+    void createSchema() {
+        dataSource = new SingleConnectionDataSource(System.getenv("SHAREIT_TEST_POSTGRES_URL"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        schema = "migration_" + ThreadLocalRandom.current().nextInt(1_000_000);
+        jdbcTemplate.execute("CREATE SCHEMA " + schema);
+        jdbcTemplate.execute("SET search_path TO " + schema + ", public");
+    }
+
+    @AfterEach
+    void dropSchema() {
+        jdbcTemplate.execute("DROP SCHEMA " + schema + " CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    void schemaScripts_whenIdentitySchemaWithRows_thenSequencesContinueAfterExistingIds() {
+        populate("identity-schema.sql");
+        jdbcTemplate.update("INSERT INTO users (id, \"name\", email) OVERRIDING SYSTEM VALUE " +
+                "VALUES (120, 'owner', 'owner@test.com'), (121, 'booker', 'booker@test.com')");
+        jdbcTemplate.update("INSERT INTO requests (id, description, requester_id, created_date) " +
+                "OVERRIDING SYSTEM VALUE VALUES (7, 'Нужна дрель', 121, now())");
+        jdbcTemplate.update("INSERT INTO items (id, \"name\", description, is_available, owner_id, request_id) " +
+                "OVERRIDING SYSTEM VALUE VALUES (300, 'Дрель', 'Ударная', true, 120, 7)");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, booker_id, item_id, status) " +
+                "OVERRIDING SYSTEM VALUE VALUES (4000, now(), now() + interval '1 day', 121, 300, 'APPROVED')");
+        jdbcTemplate.update("INSERT INTO \"comments\" (id, \"text\", author_id, item_id, created_date) " +
+                "OVERRIDING SYSTEM VALUE VALUES (55, 'Отлично', 121, 300, now())");
+
+        populate("schema.sql", "schema-postgresql.sql");
+        populate("schema.sql", "schema-postgresql.sql");
+
+        for (String table : TABLES) {
+            assertThat(jdbcTemplate.queryForObject("SELECT is_identity FROM information_schema.columns " +
+                    "WHERE table_schema = ? AND table_name = ? AND column_name = 'id'", String.class, schema, table))
+                    .as(table)
+                    .isEqualTo("NO");
+            Long maxId = jdbcTemplate.queryForObject("SELECT max(id) FROM \"" + table + "\"", Long.class);
+            Long nextId = jdbcTemplate.queryForObject("SELECT nextval('" + table + "_seq')", Long.class);
+            assertThat(nextId).as(table).isGreaterThan(maxId);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT owner_id FROM bookings WHERE id = 4000", Long.class))
+                .isEqualTo(120L);
+        jdbcTemplate.update("INSERT INTO users (id, \"name\", email) VALUES (nextval('users_seq'), 'new', 'new@test.com')");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class)).isEqualTo(3L);
+    }
+
+    @Test
+    void schemaScripts_whenApprovedBookingsOverlap_thenLaterRejectedAndConstraintAdded() {
+        populate("identity-schema.sql");
+        jdbcTemplate.update("INSERT INTO users (id, \"name\", email) OVERRIDING SYSTEM VALUE " +
+                "VALUES (120, 'owner', 'owner@test.com'), (121, 'booker', 'booker@test.com')");
+        jdbcTemplate.update("INSERT INTO items (id, \"name\", description, is_available, owner_id) " +
+                "OVERRIDING SYSTEM VALUE VALUES (300, 'Дрель', 'Ударная', true, 120), " +
+                "(301, 'Пила', 'Циркулярная', true, 120)");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, booker_id, item_id, status) " +
+                "OVERRIDING SYSTEM VALUE VALUES " +
+                "(1, '2030-01-01 10:00', '2030-01-03 10:00', 121, 300, 'APPROVED'), " +
+                "(2, '2030-01-02 10:00', '2030-01-05 10:00', 121, 300, 'APPROVED'), " +
+                "(3, '2030-01-04 10:00', '2030-01-06 10:00', 121, 300, 'APPROVED'), " +
+                "(4, '2030-01-01 12:00', '2030-01-02 12:00', 121, 300, 'WAITING'), " +
+                "(5, '2030-01-01 12:00', '2030-01-02 12:00', 121, 301, 'APPROVED')");
+
+        populate("schema.sql", "schema-postgresql.sql");
+        populate("schema.sql", "schema-postgresql.sql");
+
+        assertThat(jdbcTemplate.queryForList("SELECT status FROM bookings ORDER BY id", String.class))
+                .containsExactly("APPROVED", "REJECTED", "APPROVED", "WAITING", "APPROVED");
+        assertThatThrownBy(() -> jdbcTemplate.update("UPDATE bookings SET status = 'APPROVED' WHERE id = 4"))
+                .isInstanceOf(DataAccessException.class)
+                .hasMessageContaining("bookings_approved_no_overlap");
+    }
+
+    private void populate(String... scripts) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+        for (String script : scripts) {
+            populator.addScript(new ClassPathResource(script));
+        }
+        populator.execute(dataSource);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пользователи и вещи после фиксации читаются по id из кэша второго уровня, без запросов к базе.
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder().name("owner").email("l2-cache@test.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Байдарка")
+                .description("Двухместная")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void findById_whenCommitted_thenReadFromSecondLevelCache() {
+        statistics.clear();
+
+        assertThat(userRepository.findById(owner.getId())).isPresent();
+        assertThat(itemRepository.findById(item.getId())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findById_whenUpdated_thenCacheReflectsCommittedState() {
+        owner.setName("renamed");
+        userRepository.save(owner);
+        statistics.clear();
+
+        assertThat(userRepository.findById(owner.getId())).get()
+                .extracting(User::getName)
+                .isEqualTo("renamed");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void metrics_thenHitsAndMissesPublishedPerRegion() {
+        userRepository.findById(owner.getId());
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "users")
+                .tag("result", "hit")
+                .functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "users")
+                .tag("result", "miss")
+                .functionCounter()).isNotNull();
+    }
+}
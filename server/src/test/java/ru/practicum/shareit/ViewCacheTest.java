@@ -0,0 +1,236 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.cache.ViewCache;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.item.dto.NewCommentRequest;
+import ru.practicum.shareit.item.dto.NewItemDto;
+import ru.practicum.shareit.item.dto.UpdateItemRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.dto.UpdateUserRequest;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Карточки вещей и запросы читаются из кэша представлений и сбрасываются после фиксации связанных изменений.
+ */
+@SpringBootTest
+class ViewCacheTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder().name("owner").email("view-cache-owner@test.com").build());
+        booker = userRepository.save(User.builder().name("booker").email("view-cache-booker@test.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Палатка")
+                .description("Двухместная")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll(commentRepository.findByItemId(item.getId()));
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .toList());
+        itemRepository.deleteAll(itemRepository.findByOwnerId(owner.getId()));
+        itemRequestRepository.deleteAll(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(booker.getId()));
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void getItem_whenRepeated_thenServedWithoutQueries() {
+        itemService.getItem(item.getId());
+        statistics.clear();
+
+        ItemWithCommentsDto cached = itemService.getItem(item.getId());
+
+        assertThat(cached.getName()).isEqualTo("Палатка");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "item.views").tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void getItem_whenItemUpdated_thenReloaded() {
+        itemService.getItem(item.getId());
+        UpdateItemRequest update = new UpdateItemRequest();
+        update.setName("Шатер");
+
+        itemService.updateItem(owner.getId(), update, item.getId());
+
+        assertThat(itemService.getItem(item.getId()).getName()).isEqualTo("Шатер");
+    }
+
+    @Test
+    void getItem_whenCommentCreatedAndAuthorRenamed_thenReloaded() {
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.APPROVED)
+                .build());
+        assertThat(itemService.getItem(item.getId()).getComments()).isEmpty();
+        NewCommentRequest comment = new NewCommentRequest();
+        comment.setText("Не протекает");
+
+        itemService.createComment(item.getId(), comment, booker.getId());
+        assertThat(itemService.getItem(item.getId()).getComments())
+                .extracting(CommentDto::getAuthorName)
+                .containsExactly("booker");
+
+        UpdateUserRequest rename = new UpdateUserRequest();
+        rename.setName("renamed");
+        userService.updateUser(booker.getId(), rename);
+        assertThat(itemService.getItem(item.getId()).getComments())
+                .extracting(CommentDto::getAuthorName)
+                .containsExactly("renamed");
+    }
+
+    @Test
+    void getItem_whenCurrentBookingEnds_thenReloadedWithLastBooking() throws InterruptedException {
+        LocalDateTime end = LocalDateTime.now().minusSeconds(59);
+        Long bookingId = bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(end.minusDays(1))
+                .end(end)
+                .status(BookingStatus.APPROVED)
+                .build()).getId();
+        ItemWithCommentsDto running = itemService.getItem(item.getId());
+        assertThat(running.getLastBooking()).isNull();
+        assertThat(running.getNextBooking()).isNull();
+
+        LocalDateTime deadline = LocalDateTime.now().plusSeconds(5);
+        ItemWithCommentsDto reloaded = itemService.getItem(item.getId());
+        while (reloaded.getLastBooking() == null && LocalDateTime.now().isBefore(deadline)) {
+            Thread.sleep(100);
+            reloaded = itemService.getItem(item.getId());
+        }
+
+        assertThat(reloaded.getLastBooking()).isNotNull();
+        assertThat(reloaded.getLastBooking().getId()).isEqualTo(bookingId);
+    }
+
+    @Test
+    void getItemRequestById_whenItemAddedForRequest_thenReloaded() {
+        NewItemRequestDto newRequest = new NewItemRequestDto();
+        newRequest.setDescription("Нужна палатка");
+        Long requestId = itemRequestService.createItemRequest(newRequest, booker.getId()).getId();
+        assertThat(itemRequestService.getItemRequestById(requestId).getItems()).isEmpty();
+
+        itemService.createItem(NewItemDto.builder()
+                .name("Тент")
+                .description("От дождя")
+                .available(true)
+                .requestId(requestId)
+                .build(), owner.getId());
+
+        ItemRequestDto reloaded = itemRequestService.getItemRequestById(requestId);
+        assertThat(reloaded.getItems()).extracting(ItemForItemRequestDto::getName).containsExactly("Тент");
+    }
+
+    @Test
+    void get_whenEvictedDuringLoad_thenLoadedViewNotKept() {
+        ItemViewCache cache = new ItemViewCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            cache.get(1L, id -> {
+                if (loads.incrementAndGet() == 1) {
+                    cache.evict(id);
+                }
+                return new ViewCache.View<>(ItemWithCommentsDto.builder().id(id).build(), Set.of(), null);
+            });
+        }
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_whenViewAlreadyStale_thenLoadedAgain() {
+        ItemViewCache cache = new ItemViewCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            cache.get(1L, id -> {
+                loads.incrementAndGet();
+                return new ViewCache.View<>(ItemWithCommentsDto.builder().id(id).build(), Set.of(),
+                        LocalDateTime.now().minusSeconds(1));
+            });
+        }
+
+        assertThat(loads).hasValue(2);
+    }
+}
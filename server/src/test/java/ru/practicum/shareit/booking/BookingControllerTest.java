@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -9,18 +10,25 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.service.BookingCommandDispatcher;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -35,12 +43,21 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingCommandDispatcher bookingCommandDispatcher;
+
     @MockBean
     private ItemService itemService;
 
     @MockBean
     private UserService userService;
 
+    @BeforeEach
+    void runCommandsInline() {
+        when(bookingCommandDispatcher.execute(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
     @SneakyThrows
     @Test
     void createBooking_whenBookingNotValid_ThenReturnedBadRequest() {
@@ -133,25 +150,34 @@ class BookingControllerTest {
     @Test
     void getAllBookingsByUser() {
         long userId = 1L;
+        when(bookingService.getAllBookingsByUser(BookingState.ALL, userId, null, null))
+                .thenReturn(BookingPage.builder().bookings(List.of()).build());
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId))
                 .andDo(print())
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
 
-        verify(bookingService).getAllBookingsByUser(null, userId);
+        verify(bookingService).getAllBookingsByUser(BookingState.ALL, userId, null, null);
     }
 
     @SneakyThrows
     @Test
     void getAllBookingsByItemByUserId() {
         long userId = 1L;
+        when(bookingService.getAllBookingsByItemByUserId(BookingState.CURRENT, userId, "abc", 5))
+                .thenReturn(BookingPage.builder().bookings(List.of()).nextCursor("def").build());
 
         mockMvc.perform(get("/bookings/owner")
+                        .param("state", "CURRENT")
+                        .param("cursor", "abc")
+                        .param("size", "5")
                         .header("X-Sharer-User-Id", userId))
                 .andDo(print())
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, "def"));
 
-        verify(bookingService).getAllBookingsByItemByUserId(null, userId);
+        verify(bookingService).getAllBookingsByItemByUserId(BookingState.CURRENT, userId, "abc", 5);
     }
-}
\ No newline at end of file
+}
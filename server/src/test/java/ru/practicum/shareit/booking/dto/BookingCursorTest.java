@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingCursorTest {
+
+    @Test
+    void encode_thenDecode_ReturnSameCursor() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_000_000), 42L);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=", "/", "+");
+        assertThat(BookingCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_whenTokenIsNullOrBlank_ReturnNoCursor() {
+        assertThat(BookingCursor.decode(null)).isNull();
+        assertThat(BookingCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void decode_whenTokenMalformed_ThrowValidationException() {
+        assertThrows(ValidationException.class, () -> BookingCursor.decode("%%%"));
+        assertThrows(ValidationException.class, () -> BookingCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApprovedBookingIndexTest {
+    private static final Long ITEM_ID = 1L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ApprovedBookingIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        index = new ApprovedBookingIndex(bookingRepository, new SimpleMeterRegistry(), 10_000);
+    }
+
+    @Test
+    void overlaps_whenPeriodIntersectsLoadedBooking_thenTrue() {
+        when(bookingRepository.findApprovedPeriodsByItemId(ITEM_ID)).thenReturn(List.of(
+                new BookingPeriod(10L, BASE, BASE.plusDays(10)),
+                new BookingPeriod(11L, BASE.plusDays(2), BASE.plusDays(3))));
+
+        assertThat(index.overlaps(ITEM_ID, BASE.plusDays(5), BASE.plusDays(6))).isTrue();
+        assertThat(index.overlaps(ITEM_ID, BASE.minusDays(1), BASE.plusHours(1))).isTrue();
+        assertThat(index.overlaps(ITEM_ID, BASE.plusDays(10), BASE.plusDays(11))).isFalse();
+        assertThat(index.overlaps(ITEM_ID, BASE.minusDays(2), BASE)).isFalse();
+        verify(bookingRepository, times(1)).findApprovedPeriodsByItemId(ITEM_ID);
+    }
+
+    @Test
+    void onBookingChanged_whenApprovedAndRejected_thenIndexFollowsStatus() {
+        when(bookingRepository.findApprovedPeriodsByItemId(ITEM_ID)).thenReturn(List.of());
+        assertThat(index.overlaps(ITEM_ID, BASE, BASE.plusDays(1))).isFalse();
+
+        index.onBookingChanged(new BookingChangedEvent(booking(BookingStatus.APPROVED)));
+        assertThat(index.overlaps(ITEM_ID, BASE, BASE.plusDays(1))).isTrue();
+
+        index.onBookingChanged(new BookingChangedEvent(booking(BookingStatus.REJECTED)));
+        assertThat(index.overlaps(ITEM_ID, BASE, BASE.plusDays(1))).isFalse();
+    }
+
+    @Test
+    void onBookingChanged_whenItemNotLoaded_thenNothingCached() {
+        index.onBookingChanged(new BookingChangedEvent(booking(BookingStatus.APPROVED)));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void overlaps_whenEventArrivesDuringLoad_thenLoadedPeriodsDiscarded() {
+        when(bookingRepository.findApprovedPeriodsByItemId(ITEM_ID))
+                .thenAnswer(invocation -> {
+                    index.onBookingChanged(new BookingChangedEvent(booking(BookingStatus.APPROVED)));
+                    return List.of();
+                })
+                .thenReturn(List.of(new BookingPeriod(20L, BASE.plusHours(1), BASE.plusHours(5))));
+
+        index.overlaps(ITEM_ID, BASE, BASE.plusDays(1));
+
+        assertThat(index.overlaps(ITEM_ID, BASE, BASE.plusDays(1))).isTrue();
+        verify(bookingRepository, times(2)).findApprovedPeriodsByItemId(ITEM_ID);
+    }
+
+    @Test
+    void overlaps_whenMoreItemsThanLimit_thenIndexStaysBounded() {
+        index = new ApprovedBookingIndex(bookingRepository, new SimpleMeterRegistry(), 10);
+        when(bookingRepository.findApprovedPeriodsByItemId(anyLong())).thenReturn(List.of());
+
+        for (long itemId = 1; itemId <= 100; itemId++) {
+            index.overlaps(itemId, BASE, BASE.plusDays(1));
+        }
+
+        assertThat(index.size()).isLessThanOrEqualTo(10);
+    }
+
+    private static BookingDto booking(BookingStatus status) {
+        return BookingDto.builder()
+                .id(20L)
+                .start(BASE.plusHours(1))
+                .end(BASE.plusHours(5))
+                .status(status)
+                .item(ItemDto.builder().id(ITEM_ID).build())
+                .build();
+    }
+}
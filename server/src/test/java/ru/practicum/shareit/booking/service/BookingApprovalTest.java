@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class BookingApprovalTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void updateBookingStatus_whenApproved_thenOverlappingWaitingRejected() {
+        User owner = userRepository.save(User.builder().name("owner").email("reject-owner@test.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("reject-booker@test.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Пила")
+                .description("Цепная")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking approved = saveWaiting(booker, item, start, start.plusDays(3));
+        Booking overlapping = saveWaiting(booker, item, start.plusDays(1), start.plusDays(5));
+        Booking inside = saveWaiting(booker, item, start.plusHours(1), start.plusHours(2));
+        saveWaiting(booker, item, start.plusDays(3), start.plusDays(4));
+
+        BookingDto result = bookingService.updateBookingStatus(approved.getId(), true, owner.getId());
+
+        assertThat(result.getRejectedBookingIds()).containsExactly(overlapping.getId(), inside.getId());
+        assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(overlapping.getId(), true, owner.getId()));
+    }
+
+    @Test
+    void updateBookingStatus_whenDecidedTwice_thenSecondDecisionConflicts() {
+        User owner = userRepository.save(User.builder().name("owner").email("approval-owner@test.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("approval-booker@test.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .owner(owner)
+                .build());
+        Booking booking = saveWaiting(booker, item, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+
+        BookingDto approved = bookingService.updateBookingStatus(booking.getId(), true, owner.getId());
+
+        assertThat(approved.getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(booking.getId(), false, owner.getId()));
+        assertThat(bookingRepository.existsApprovedBookingInPeriod(item.getId(), booking.getStart(), booking.getEnd()))
+                .isTrue();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateBookingStatus_whenOverlappingApprovedConcurrently_thenOneApprovedAndOtherConflicts()
+            throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("parallel-owner@test.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("parallel-booker@test.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Рубанок")
+                .description("Электрический")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> bookings = List.of(
+                saveWaiting(booker, item, start, start.plusDays(2)),
+                saveWaiting(booker, item, start.plusDays(1), start.plusDays(3)));
+        CyclicBarrier barrier = new CyclicBarrier(bookings.size());
+        ExecutorService executor = Executors.newFixedThreadPool(bookings.size());
+        try {
+            List<Future<BookingDto>> results = new ArrayList<>();
+            for (Booking booking : bookings) {
+                results.add(executor.submit(() -> {
+                    barrier.await();
+                    return bookingService.updateBookingStatus(booking.getId(), true, owner.getId());
+                }));
+            }
+
+            int approved = 0;
+            int conflicts = 0;
+            for (Future<BookingDto> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    approved++;
+                } catch (ExecutionException exception) {
+                    assertThat(exception.getCause()).isInstanceOf(ConflictException.class);
+                    conflicts++;
+                }
+            }
+            assertThat(approved).isEqualTo(1);
+            assertThat(conflicts).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+            bookingRepository.deleteAllById(bookings.stream().map(Booking::getId).toList());
+            itemRepository.delete(item);
+            userRepository.deleteAll(List.of(owner, booker));
+        }
+    }
+
+    private Booking saveWaiting(User booker, Item item, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingCommandDispatcherTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookingCommandDispatcher dispatcher = new BookingCommandDispatcher(meterRegistry);
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void execute_whenSameItem_thenCommandsNeverOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            int number = i;
+            results.add(callers.submit(() -> dispatcher.execute(1L, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.onSpinWait();
+                running.decrementAndGet();
+                return number;
+            })));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i);
+        }
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.booking.dispatcher.wait").timer().count()).isEqualTo(50);
+        assertThat(meterRegistry.get("shareit.booking.dispatcher.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void execute_whenDifferentItems_thenCommandsRunInParallel() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Runnable awaitOther = () -> {
+            bothStarted.countDown();
+            try {
+                assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        Future<Boolean> first = callers.submit(() -> dispatcher.execute(1L, () -> {
+            awaitOther.run();
+            return true;
+        }));
+        Future<Boolean> second = callers.submit(() -> dispatcher.execute(2L, () -> {
+            awaitOther.run();
+            return true;
+        }));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void execute_whenCommandThrows_thenSameExceptionRethrown() {
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> dispatcher.execute(1L, () -> {
+                    throw new ValidationException("Данное время уже забронировано!");
+                }));
+
+        assertThat(exception.getMessage()).isEqualTo("Данное время уже забронировано!");
+        assertThat(dispatcher.execute(1L, () -> "next")).isEqualTo("next");
+    }
+}
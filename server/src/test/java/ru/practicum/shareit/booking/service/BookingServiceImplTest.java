@@ -5,25 +5,37 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.IntegrityViolations;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.persistence.GroupCommitWriter;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserBloomFilter;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,17 +55,27 @@ class BookingServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserBloomFilter userBloomFilter;
+
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ApprovedBookingIndex approvedBookingIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private GroupCommitWriter groupCommitWriter;
+
     private User booker;
     private User owner;
     private Item item;
     private NewBookingRequest request;
     private List<Booking> bookings;
     private Booking waitingBooking;
-    private Booking approvedBooking;
-    private Booking rejectedBooking;
 
     @BeforeEach
     void createBookerAndItem() {
@@ -96,24 +118,6 @@ class BookingServiceImplTest {
                 .end(request.getEnd())
                 .status(BookingStatus.WAITING)
                 .build();
-
-        approvedBooking = Booking.builder()
-                .id(bookingId)
-                .booker(booker)
-                .item(item)
-                .start(request.getStart())
-                .end(request.getEnd())
-                .status(BookingStatus.APPROVED)
-                .build();
-
-        rejectedBooking = Booking.builder()
-                .id(bookingId)
-                .booker(booker)
-                .item(item)
-                .start(request.getStart())
-                .end(request.getEnd())
-                .status(BookingStatus.REJECTED)
-                .build();
     }
 
     private Booking createBooking(Long id, BookingStatus status) {
@@ -127,6 +131,22 @@ class BookingServiceImplTest {
                 .build();
     }
 
+    private BookingDto createBookingDto(Long id, BookingStatus status) {
+        return BookingMapper.mapToBookingDto(createBooking(id, status));
+    }
+
+    private Booking insertWithCheck(InvocationOnMock invocation) {
+        Booking booking = invocation.getArgument(0);
+        invocation.<Consumer<Booking>>getArgument(1).accept(booking);
+        return booking;
+    }
+
+    private List<BookingDto> toDtos(List<Booking> bookings) {
+        return bookings.stream()
+                .map(BookingMapper::mapToBookingDto)
+                .toList();
+    }
+
     @Test
     void createBooking_WhenBookingDatesValid_thenSavedBooking() {
         when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
@@ -149,14 +169,52 @@ class BookingServiceImplTest {
                 .status(BookingStatus.WAITING)
                 .build();
 
-        when(bookingRepository.save(any(Booking.class))).thenReturn(savedBooking);
+        when(groupCommitWriter.insert(any(Booking.class), any())).thenReturn(savedBooking);
 
         BookingDto expectedDto = BookingMapper.mapToBookingDto(savedBooking);
 
         BookingDto actualDto = bookingService.createBooking(request, booker.getId());
 
         assertEquals(expectedDto, actualDto);
-        verify(bookingRepository).save(any(Booking.class));
+        verify(groupCommitWriter).insert(any(Booking.class), any());
+        verify(eventPublisher).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    void createBooking_whenItemUnavailableAtWrite_thenThrowValidationException() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(groupCommitWriter.insert(any(Booking.class), any())).thenAnswer(this::insertWithCheck);
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
+        when(itemRepository.findAvailableById(item.getId())).thenReturn(Optional.of(false));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.createBooking(request, booker.getId()));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void createBooking_whenBookerDeletedBeforeWrite_thenThrowNotFoundException() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(groupCommitWriter.insert(any(Booking.class), any())).thenAnswer(this::insertWithCheck);
+        when(userRepository.existsById(booker.getId())).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> bookingService.createBooking(request, booker.getId()));
+        verify(itemRepository, never()).findAvailableById(any());
+    }
+
+    @Test
+    void createBooking_whenIndexReportsOverlap_thenThrowWithoutDatabaseCheck() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(approvedBookingIndex.overlaps(item.getId(), request.getStart(), request.getEnd())).thenReturn(true);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.createBooking(request, booker.getId()));
+        verify(bookingRepository, never()).existsApprovedBookingInPeriod(any(), any(), any());
+        verify(groupCommitWriter, never()).insert(any(Booking.class), any());
     }
 
     @Test
@@ -169,7 +227,7 @@ class BookingServiceImplTest {
 
         assertThrows(ValidationException.class,
                 () -> bookingService.createBooking(request, booker.getId()));
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(groupCommitWriter, never()).insert(any(Booking.class), any());
     }
 
     @Test
@@ -180,7 +238,7 @@ class BookingServiceImplTest {
 
         assertThrows(ValidationException.class,
                 () -> bookingService.createBooking(request, booker.getId()));
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(groupCommitWriter, never()).insert(any(Booking.class), any());
     }
 
     @Test
@@ -210,7 +268,7 @@ class BookingServiceImplTest {
 
         assertThrows(NotFoundException.class,
                 () -> bookingService.createBooking(request, booker.getId()));
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(groupCommitWriter, never()).insert(any(Booking.class), any());
     }
 
     @Test
@@ -220,36 +278,115 @@ class BookingServiceImplTest {
 
         assertThrows(NotFoundException.class,
                 () -> bookingService.createBooking(request, booker.getId()));
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(groupCommitWriter, never()).insert(any(Booking.class), any());
     }
 
     @Test
     void getAllBookingsByUser_whenStatusIsNull_thenReturnAllBookings() {
         Long bookerId = booker.getId();
         when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdOrderByStartDesc(bookerId)).thenReturn(bookings);
+        when(bookingRepository.findFirstPageByBookerId(bookerId, Limit.of(21)))
+                .thenReturn(toDtos(bookings));
 
-        Collection<BookingDto> result = bookingService.getAllBookingsByUser(null, bookerId);
+        BookingPage result = bookingService.getAllBookingsByUser(BookingState.ALL, bookerId, null, 20);
 
-        assertThat(result).hasSize(3);
-        assertThat(result)
+        assertThat(result.getBookings()).hasSize(3);
+        assertThat(result.getBookings())
                 .extracting(BookingDto::getId)
                 .containsExactly(1L, 2L, 3L);
+        assertThat(result.getNextCursor()).isNull();
 
-        verify(bookingRepository, times(1)).findByBookerIdOrderByStartDesc(bookerId);
-        verify(bookingRepository, never()).findByBookerIdAndStatusOrderByStartDesc(anyLong(), any());
+        verify(bookingRepository, times(1))
+                .findFirstPageByBookerId(bookerId, Limit.of(21));
+        verify(bookingRepository, never()).findFirstPageByBookerIdAndStatus(anyLong(), any(), any());
+        verify(bookingRepository, never()).findPageByBookerId(anyLong(), any(), any(), any());
     }
 
     @Test
     void getAllBookingsByUser_whenStatusIsNullAndNoBookings_thenReturnEmptyList() {
         Long bookerId = booker.getId();
         when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdOrderByStartDesc(bookerId)).thenReturn(Collections.emptyList());
+        when(bookingRepository.findFirstPageByBookerId(eq(bookerId), any()))
+                .thenReturn(Collections.emptyList());
 
-        Collection<BookingDto> result = bookingService.getAllBookingsByUser(null, bookerId);
+        BookingPage result = bookingService.getAllBookingsByUser(BookingState.ALL, bookerId, null, 20);
 
-        assertThat(result).isEmpty();
-        verify(bookingRepository).findByBookerIdOrderByStartDesc(bookerId);
+        assertThat(result.getBookings()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+        verify(bookingRepository).findFirstPageByBookerId(eq(bookerId), any());
+    }
+
+    @Test
+    void getAllBookingsByUser_whenNoSizeAndNoCursor_thenReturnWholeListWithoutCursor() {
+        Long bookerId = booker.getId();
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findFirstPageByBookerId(bookerId, Limit.unlimited()))
+                .thenReturn(toDtos(bookings));
+
+        BookingPage result = bookingService.getAllBookingsByUser(BookingState.ALL, bookerId, null, null);
+
+        assertThat(result.getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getAllBookingsByUser_whenCursorWithoutSize_thenReadDefaultPage() {
+        Long bookerId = booker.getId();
+        BookingCursor after = new BookingCursor(request.getStart(), 2L);
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findPageByBookerId(bookerId, after.getStart(), 2L, Limit.of(21)))
+                .thenReturn(List.of(createBookingDto(3L, BookingStatus.REJECTED)));
+
+        BookingPage result = bookingService.getAllBookingsByUser(BookingState.ALL, bookerId, after.encode(), null);
+
+        assertThat(result.getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(3L);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getAllBookingsByUser_whenMoreRowsThanPageSize_thenReturnNextCursor() {
+        Long bookerId = booker.getId();
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findFirstPageByBookerId(eq(bookerId), eq(Limit.of(3))))
+                .thenReturn(toDtos(bookings));
+
+        BookingPage result = bookingService.getAllBookingsByUser(BookingState.ALL, bookerId, null, 2);
+
+        assertThat(result.getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(1L, 2L);
+        assertThat(BookingCursor.decode(result.getNextCursor()))
+                .isEqualTo(new BookingCursor(request.getStart(), 2L));
+    }
+
+    @Test
+    void getAllBookingsByUser_whenCursorGiven_thenSeekAfterCursor() {
+        Long bookerId = booker.getId();
+        BookingCursor after = new BookingCursor(request.getStart(), 2L);
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findPageByBookerId(bookerId, after.getStart(), 2L, Limit.of(3)))
+                .thenReturn(List.of(createBookingDto(3L, BookingStatus.REJECTED)));
+
+        BookingPage result = bookingService.getAllBookingsByUser(BookingState.ALL, bookerId, after.encode(), 2);
+
+        assertThat(result.getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(3L);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getAllBookingsByUser_whenCursorMalformed_thenThrowValidationException() {
+        Long bookerId = booker.getId();
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookingsByUser(BookingState.ALL, bookerId, "not-a-cursor", 20));
+        verify(bookingRepository, never()).findPageByBookerId(anyLong(), any(), any(), any());
     }
 
     @Test
@@ -262,17 +399,49 @@ class BookingServiceImplTest {
         );
 
         when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId, status))
-                .thenReturn(waitingBookings);
+        when(bookingRepository.findFirstPageByBookerIdAndStatus(eq(bookerId), eq(status), any()))
+                .thenReturn(toDtos(waitingBookings));
 
-        Collection<BookingDto> result = bookingService.getAllBookingsByUser(status, bookerId);
+        BookingPage result = bookingService.getAllBookingsByUser(BookingState.WAITING, bookerId, null, 20);
 
-        assertThat(result).hasSize(2);
-        assertThat(result)
+        assertThat(result.getBookings()).hasSize(2);
+        assertThat(result.getBookings())
                 .extracting(BookingDto::getStatus)
                 .allMatch(s -> s == BookingStatus.WAITING);
 
-        verify(bookingRepository).findByBookerIdAndStatusOrderByStartDesc(bookerId, status);
+        verify(bookingRepository).findFirstPageByBookerIdAndStatus(eq(bookerId), eq(status), any());
+    }
+
+    @Test
+    void getAllBookingsByUser_whenStateIsCurrent_thenQueryCurrentWindow() {
+        Long bookerId = booker.getId();
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findCurrentFirstPageByBookerId(eq(bookerId), any(), any()))
+                .thenReturn(List.of(createBookingDto(2L, BookingStatus.APPROVED)));
+
+        BookingPage result = bookingService.getAllBookingsByUser(BookingState.CURRENT, bookerId, null, 20);
+
+        assertThat(result.getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(2L);
+        verify(bookingRepository, never()).findFirstPageByBookerId(anyLong(), any());
+    }
+
+    @Test
+    void getAllBookingsByUser_whenStateIsPastOrFuture_thenQueryTimeWindow() {
+        Long bookerId = booker.getId();
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findPastFirstPageByBookerId(eq(bookerId), any(), any()))
+                .thenReturn(List.of(createBookingDto(5L, BookingStatus.APPROVED)));
+        when(bookingRepository.findFutureFirstPageByBookerId(eq(bookerId), any(), any()))
+                .thenReturn(List.of(createBookingDto(6L, BookingStatus.WAITING)));
+
+        assertThat(bookingService.getAllBookingsByUser(BookingState.PAST, bookerId, null, 20).getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(5L);
+        assertThat(bookingService.getAllBookingsByUser(BookingState.FUTURE, bookerId, null, 20).getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(6L);
     }
 
     @Test
@@ -282,17 +451,78 @@ class BookingServiceImplTest {
 
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(waitingBooking));
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(approvedBooking);
+        when(itemRepository.findByIdForApproval(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatusIfWaiting(bookingId, BookingStatus.APPROVED)).thenReturn(1);
 
         BookingDto result = bookingService.updateBookingStatus(bookingId, true, ownerId);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(bookingId);
         assertThat(result.getStatus()).isEqualTo(BookingStatus.APPROVED);
+        verify(bookingRepository).updateStatusIfWaiting(bookingId, BookingStatus.APPROVED);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void updateBookingStatus_whenApprovedPeriodOverlaps_thenThrowConflictException() {
+        Long bookingId = 10L;
+        Long ownerId = 2L;
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(waitingBooking));
+        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(itemRepository.findByIdForApproval(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsApprovedBookingInPeriod(waitingBooking.getItem().getId(),
+                waitingBooking.getStart(), waitingBooking.getEnd())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.updateBookingStatus(bookingId, true, ownerId));
+        verify(bookingRepository, never()).updateStatusIfWaiting(any(), any());
+    }
+
+    @Test
+    void updateBookingStatus_whenExclusionConstraintViolated_thenThrowConflictException() {
+        Long bookingId = 10L;
+        Long ownerId = 2L;
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(waitingBooking));
+        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(itemRepository.findByIdForApproval(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatusIfWaiting(bookingId, BookingStatus.APPROVED))
+                .thenThrow(new DataIntegrityViolationException("bookings_approved_no_overlap",
+                        new SQLException("conflicting key value", IntegrityViolations.EXCLUSION_VIOLATION)));
 
-        verify(bookingRepository, times(1)).save(argThat(booking ->
-                booking.getStatus() == BookingStatus.APPROVED
-        ));
+        assertThrows(ConflictException.class, () -> bookingService.updateBookingStatus(bookingId, true, ownerId));
+    }
+
+    @Test
+    void updateBookingStatus_whenOtherConstraintViolated_thenRethrow() {
+        Long bookingId = 10L;
+        Long ownerId = 2L;
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(waitingBooking));
+        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(itemRepository.findByIdForApproval(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatusIfWaiting(bookingId, BookingStatus.APPROVED))
+                .thenThrow(new DataIntegrityViolationException("bookings_check",
+                        new SQLException("check constraint violated", "23514")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.updateBookingStatus(bookingId, true, ownerId));
+    }
+
+    @Test
+    void updateBookingStatus_whenBookingAlreadyDecided_thenThrowConflictException() {
+        Long bookingId = 10L;
+        Long ownerId = 2L;
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(waitingBooking));
+        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(bookingRepository.updateStatusIfWaiting(bookingId, BookingStatus.REJECTED)).thenReturn(0);
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(bookingId, false, ownerId));
+
+        assertThat(exception.getMessage()).contains("уже рассмотрено");
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -302,17 +532,14 @@ class BookingServiceImplTest {
 
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(waitingBooking));
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(rejectedBooking);
+        when(bookingRepository.updateStatusIfWaiting(bookingId, BookingStatus.REJECTED)).thenReturn(1);
 
         BookingDto result = bookingService.updateBookingStatus(bookingId, false, ownerId);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(bookingId);
         assertThat(result.getStatus()).isEqualTo(BookingStatus.REJECTED);
-
-        verify(bookingRepository, times(1)).save(argThat(booking ->
-                booking.getStatus() == BookingStatus.REJECTED
-        ));
+        verify(itemRepository, never()).findByIdForApproval(any());
     }
 
     @Test
@@ -326,7 +553,7 @@ class BookingServiceImplTest {
                 () -> bookingService.updateBookingStatus(bookingId, true, ownerId));
 
         assertThat(exception.getMessage()).contains("не найден");
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).updateStatusIfWaiting(any(), any());
     }
 
     @Test
@@ -342,7 +569,7 @@ class BookingServiceImplTest {
         assertThat(exception.getMessage())
                 .isEqualTo("Вносить изменения в параметры booking может только владелец вещи!");
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).updateStatusIfWaiting(any(), any());
         verify(userRepository, never()).findById(any());
     }
 
@@ -350,17 +577,18 @@ class BookingServiceImplTest {
     void getAllBookingsByItemByUserId_whenStatusIsNull_thenReturnAllItemBookings() {
         Long userId = 2L;
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllBookingsByItemByUserId(userId)).thenReturn(bookings);
+        when(bookingRepository.findFirstPageByOwnerId(eq(userId), eq(Limit.of(21))))
+                .thenReturn(toDtos(bookings));
 
-        Collection<BookingDto> result = bookingService.getAllBookingsByItemByUserId(null, userId);
+        BookingPage result = bookingService.getAllBookingsByItemByUserId(BookingState.ALL, userId, null, 20);
 
-        assertThat(result).hasSize(3);
-        assertThat(result)
+        assertThat(result.getBookings()).hasSize(3);
+        assertThat(result.getBookings())
                 .extracting(BookingDto::getId)
                 .containsExactly(1L, 2L, 3L);
 
-        verify(bookingRepository, times(1)).findAllBookingsByItemByUserId(userId);
-        verify(bookingRepository, never()).findAllBookingsByItemByUserIdAndStatus(anyLong(), any());
+        verify(bookingRepository, times(1)).findFirstPageByOwnerId(eq(userId), any());
+        verify(bookingRepository, never()).findFirstPageByOwnerIdAndStatus(anyLong(), any(), any());
     }
 
     @Test
@@ -368,30 +596,63 @@ class BookingServiceImplTest {
         Long userId = 2L;
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllBookingsByItemByUserId(userId)).thenReturn(Collections.emptyList());
+        when(bookingRepository.findFirstPageByOwnerId(eq(userId), any()))
+                .thenReturn(Collections.emptyList());
 
-        Collection<BookingDto> result = bookingService.getAllBookingsByItemByUserId(null, userId);
+        BookingPage result = bookingService.getAllBookingsByItemByUserId(BookingState.ALL, userId, null, 20);
 
-        assertThat(result).isEmpty();
-        verify(bookingRepository).findAllBookingsByItemByUserId(userId);
+        assertThat(result.getBookings()).isEmpty();
+        verify(bookingRepository).findFirstPageByOwnerId(eq(userId), any());
     }
 
     @Test
-    void getAllBookingsByItemByUserId_whenStatusIsApproved_thenReturnApprovedBookings() {
+    void getAllBookingsByItemByUserId_whenStateIsRejected_thenReturnRejectedBookings() {
         Long userId = 2L;
-
-        BookingStatus status = BookingStatus.APPROVED;
-        List<Booking> approvedBookings = List.of(
-                createBooking(2L, BookingStatus.APPROVED)
+        List<Booking> rejectedBookings = List.of(
+                createBooking(3L, BookingStatus.REJECTED)
         );
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllBookingsByItemByUserIdAndStatus(userId, status))
-                .thenReturn(approvedBookings);
+        when(bookingRepository.findFirstPageByOwnerIdAndStatus(eq(userId), eq(BookingStatus.REJECTED),
+                any()))
+                .thenReturn(toDtos(rejectedBookings));
+
+        BookingPage result = bookingService.getAllBookingsByItemByUserId(BookingState.REJECTED, userId, null, 20);
+
+        assertThat(result.getBookings()).hasSize(1);
+        assertThat(result.getBookings().get(0).getStatus()).isEqualTo(BookingStatus.REJECTED);
+    }
+
+    @Test
+    void getAllBookingsByItemByUserId_whenStateIsTimeBased_thenQueryTimeWindow() {
+        Long userId = 2L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
+        when(bookingRepository.findCurrentFirstPageByOwnerId(eq(userId), any(), any()))
+                .thenReturn(List.of(createBookingDto(7L, BookingStatus.APPROVED)));
+        when(bookingRepository.findPastFirstPageByOwnerId(eq(userId), any(), any()))
+                .thenReturn(List.of());
+        when(bookingRepository.findFutureFirstPageByOwnerId(eq(userId), any(), any()))
+                .thenReturn(List.of(createBookingDto(8L, BookingStatus.WAITING)));
+
+        assertThat(bookingService.getAllBookingsByItemByUserId(BookingState.CURRENT, userId, null, 20)
+                .getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(7L);
+        assertThat(bookingService.getAllBookingsByItemByUserId(BookingState.PAST, userId, null, 20)
+                .getBookings())
+                .isEmpty();
+        assertThat(bookingService.getAllBookingsByItemByUserId(BookingState.FUTURE, userId, null, 20)
+                .getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(8L);
+    }
 
-        Collection<BookingDto> result = bookingService.getAllBookingsByItemByUserId(status, userId);
+    @Test
+    void getAllBookingsByItemByUserId_whenPageSizeNotPositive_thenThrowValidationException() {
+        Long userId = 2L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
 
-        assertThat(result).hasSize(1);
-        assertThat(result.iterator().next().getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookingsByItemByUserId(BookingState.ALL, userId, null, 0));
     }
-}
\ No newline at end of file
+}
@@ -4,12 +4,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.exception.IntegrityViolations;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 
+import java.sql.SQLException;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -51,4 +56,42 @@ class ErrorHandlerTest {
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void handleDataIntegrityViolation_whenUniqueOrExclusionViolation_thenReturn409() throws Exception {
+        when(bookingController.getBooking(any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate",
+                        new SQLException("duplicate key", IntegrityViolations.UNIQUE_VIOLATION)))
+                .thenThrow(new DataIntegrityViolationException("overlap",
+                        new SQLException("conflicting key", IntegrityViolations.EXCLUSION_VIOLATION)));
+
+        mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void handleDataIntegrityViolation_whenOtherViolation_thenReturn500() throws Exception {
+        when(bookingController.getBooking(any(), any()))
+                .thenThrow(new DataIntegrityViolationException("not null",
+                        new SQLException("null value in column", "23502")));
+
+        mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void handlePessimisticLocking_whenLockNotAcquired_thenReturn409() throws Exception {
+        when(bookingController.updateBookingStatus(any(), any(), any()))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        mockMvc.perform(patch("/bookings/{bookingId}", 1L)
+                        .param("approved", "true")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isConflict());
+    }
+}
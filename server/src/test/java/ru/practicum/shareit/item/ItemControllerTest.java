@@ -7,12 +7,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.NewCommentRequest;
 import ru.practicum.shareit.item.dto.NewItemDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -117,6 +122,28 @@ class ItemControllerTest {
         verify(itemService).getOwnerItems(ownerId);
     }
 
+    @SneakyThrows
+    @Test
+    void getItemAvailability_whenWindowGiven_thenPassedToService() {
+        long itemId = 1L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(itemService.getItemAvailability(itemId, from, to)).thenReturn(ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(List.of())
+                .free(List.of(new TimeIntervalDto(from, to)))
+                .build());
+
+        mockMvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", "2030-01-01T12:00:00")
+                        .param("to", "2030-01-02T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.free[0].start").value("2030-01-01T12:00:00"))
+                .andExpect(jsonPath("$.busy").isEmpty());
+    }
+
     @SneakyThrows
     @Test
     void searchItem() {
@@ -127,7 +154,32 @@ class ItemControllerTest {
                 .andDo(print())
                 .andExpect(status().isOk());
 
-        verify(itemService).searchItem(text);
+        verify(itemService).searchItem(text, null, null, 0, 20);
+    }
+
+    @SneakyThrows
+    @Test
+    void searchItem_whenFromAndSizeGiven_thenPassedToService() {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "Text")
+                        .param("from", "40")
+                        .param("size", "10"))
+                .andExpect(status().isOk());
+
+        verify(itemService).searchItem("Text", null, null, 40, 10);
+    }
+
+    @SneakyThrows
+    @Test
+    void searchItem_whenPeriodGiven_thenPassedToService() {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "Text")
+                        .param("start", "2030-01-01T12:00:00")
+                        .param("end", "2030-01-02T12:00:00"))
+                .andExpect(status().isOk());
+
+        verify(itemService).searchItem("Text", LocalDateTime.of(2030, 1, 1, 12, 0),
+                LocalDateTime.of(2030, 1, 2, 12, 0), 0, 20);
     }
 
     @SneakyThrows
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.bulk.ItemImportLine;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.NewItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ItemImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void importItems_whenNdjson_thenResultPerLine() throws Exception {
+        User owner = userRepository.save(User.builder().name("shop").email("import-ndjson@test.com").build());
+        String body = String.join("\n",
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}",
+                "{\"name\":\"\",\"description\":\"Без названия\",\"available\":true}",
+                "{\"name\":\"Пила\",\"description\":\"Цепная\",\"available\":true,\"requestId\":999999}",
+                "not json",
+                "{\"name\":\"Лестница\",\"description\":\"Стремянка\",\"available\":false}");
+
+        List<ItemImportResultDto> results = importItems(owner.getId(), MediaType.APPLICATION_NDJSON, body);
+
+        assertThat(results).extracting(ItemImportResultDto::getLine).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(1).getError()).isEqualTo("Название вещи не может быть пустым или null.");
+        assertThat(results.get(2).getError()).isEqualTo("Запрос вещи с id = 999999 не найден.");
+        assertThat(results.get(3).getError()).startsWith("Некорректный JSON");
+        assertThat(results.get(4).getId()).isNotNull();
+        assertThat(itemRepository.findByOwnerId(owner.getId()))
+                .extracting(Item::getName)
+                .containsExactlyInAnyOrder("Дрель", "Лестница");
+    }
+
+    @Test
+    void importItems_whenCsvLongerThanOneBatch_thenAllLinesSaved() throws Exception {
+        User owner = userRepository.save(User.builder().name("shop").email("import-csv@test.com").build());
+        String body = "name,description,available\n" + IntStream.range(0, 120)
+                .mapToObj(i -> "Вещь " + i + ",Описание " + i + ",true")
+                .collect(Collectors.joining("\n"));
+
+        List<ItemImportResultDto> results = importItems(owner.getId(), MediaType.parseMediaType("text/csv"), body);
+
+        assertThat(results).hasSize(120).allMatch(result -> result.getId() != null);
+        assertThat(results.get(0).getLine()).isEqualTo(2L);
+        assertThat(itemRepository.findByOwnerId(owner.getId())).hasSize(120);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importItems_whenRequestEntityManagerBound_thenPersistenceContextClearedAfterEachChunk() {
+        User owner = userRepository.save(User.builder().name("shop").email("import-context@test.com").build());
+        List<ItemImportLine> lines = LongStream.rangeClosed(1, 120)
+                .mapToObj(line -> ItemImportLine.parsed(line, NewItemDto.builder()
+                        .name("Вещь " + line)
+                        .description("Описание " + line)
+                        .available(true)
+                        .build()))
+                .toList();
+        List<Integer> managedAfterChunk = new ArrayList<>();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            itemService.importItems(owner.getId(), lines.iterator(), results -> managedAfterChunk.add(
+                    entityManager.unwrap(Session.class).getStatistics().getEntityCount()));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+            itemRepository.deleteAll(itemRepository.findByOwnerId(owner.getId()));
+            userRepository.deleteById(owner.getId());
+        }
+
+        assertThat(managedAfterChunk).hasSize(3).containsOnly(0);
+    }
+
+    @Test
+    void importItems_whenOwnerNotFound_thenNotFound() throws Exception {
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", Long.MAX_VALUE)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<ItemImportResultDto> importItems(Long ownerId, MediaType contentType, String body) throws Exception {
+        String response = mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(contentType)
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        return Arrays.stream(response.split("\n"))
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, ItemImportResultDto.class);
+                    } catch (Exception exception) {
+                        throw new IllegalStateException(exception);
+                    }
+                })
+                .toList();
+    }
+}
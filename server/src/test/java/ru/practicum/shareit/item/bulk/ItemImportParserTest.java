@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.NewItemDto;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemImportParserTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void ndjson_whenLineBroken_thenErrorForThatLineOnly() {
+        List<ItemImportLine> lines = parse(MediaType.APPLICATION_NDJSON, String.join("\n",
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}",
+                "",
+                "{\"name\":\"Пила\",",
+                "{\"name\":\"Лестница\",\"description\":\"Стремянка\",\"available\":false,\"requestId\":7}"));
+
+        assertThat(lines).extracting(ItemImportLine::getLine).containsExactly(1L, 3L, 4L);
+        assertThat(lines.get(0).getItem().getName()).isEqualTo("Дрель");
+        assertThat(lines.get(1).getError()).startsWith("Некорректный JSON");
+        assertThat(lines.get(2).getItem().getRequestId()).isEqualTo(7L);
+    }
+
+    @Test
+    void csv_whenColumnsReorderedAndQuoted_thenParsedByHeader() {
+        List<ItemImportLine> lines = parse(ItemImportParser.TEXT_CSV, """
+                available,Name,description
+                true,"Стол, складной","Ножки \"\"в сборе\"\"\"
+                yes,Стул,Деревянный
+                false,Шкаф
+                """);
+
+        assertThat(lines).hasSize(3);
+        NewItemDto table = lines.get(0).getItem();
+        assertThat(table.getName()).isEqualTo("Стол, складной");
+        assertThat(table.getDescription()).isEqualTo("Ножки \"в сборе\"");
+        assertThat(table.getAvailable()).isTrue();
+        assertThat(lines.get(1).getError()).isEqualTo("Доступность вещи должна быть true или false.");
+        assertThat(lines.get(2).getError()).isEqualTo("Ожидалось значений: 3, получено: 2.");
+    }
+
+    @Test
+    void csv_whenRequiredColumnMissing_thenEveryLineFails() {
+        List<ItemImportLine> lines = parse(ItemImportParser.TEXT_CSV, """
+                name,description
+                Стол,Складной
+                """);
+
+        assertThat(lines).extracting(ItemImportLine::getError)
+                .containsOnly("В заголовке CSV нет колонок: available.");
+    }
+
+    @Test
+    void of_whenUnsupportedContentType_thenThrowValidationException() {
+        assertThrows(ValidationException.class, () -> ItemImportParser.of(MediaType.APPLICATION_JSON,
+                new BufferedReader(new StringReader("")), objectMapper));
+    }
+
+    private List<ItemImportLine> parse(MediaType contentType, String body) {
+        ItemImportParser parser = ItemImportParser.of(contentType, new BufferedReader(new StringReader(body)),
+                objectMapper);
+        List<ItemImportLine> lines = new ArrayList<>();
+        parser.forEachRemaining(lines::add);
+        return lines;
+    }
+}
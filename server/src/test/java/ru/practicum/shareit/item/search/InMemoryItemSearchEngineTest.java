@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    private static final int ITEMS = 2 * InMemoryItemSearchEngine.ID_CHUNK + 500;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private InMemoryItemSearchEngine engine;
+
+    @BeforeEach
+    void buildIndex() {
+        when(itemRepository.findAll()).thenReturn(LongStream.rangeClosed(1, ITEMS)
+                .mapToObj(id -> Item.builder()
+                        .id(id)
+                        .name("Пила " + id)
+                        .description("")
+                        .available(true)
+                        .build())
+                .toList());
+        engine.rebuild();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_whenShortTextMatchesAllItems_thenBookingFilterQueriedInChunks() {
+        when(bookingRepository.findItemIdsWithApprovedBookingInPeriod(any(), any(), any()))
+                .thenReturn(List.of(1L, 1001L, 2001L));
+
+        List<ItemDto> result = engine.search(query(ITEMS - 5, 10));
+
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(bookingRepository, times(3)).findItemIdsWithApprovedBookingInPeriod(ids.capture(), any(), any());
+        assertThat(ids.getAllValues()).allSatisfy(chunk ->
+                assertThat(chunk).hasSizeLessThanOrEqualTo(InMemoryItemSearchEngine.ID_CHUNK));
+        assertThat(result).extracting(ItemDto::getId)
+                .containsExactly(ITEMS - 1L, (long) ITEMS);
+    }
+
+    @Test
+    void search_whenPageFilledByFirstChunk_thenRestNotQueried() {
+        when(bookingRepository.findItemIdsWithApprovedBookingInPeriod(any(), any(), any()))
+                .thenReturn(List.of(2L));
+
+        List<ItemDto> result = engine.search(query(0, 3));
+
+        verify(bookingRepository, times(1)).findItemIdsWithApprovedBookingInPeriod(any(), any(), any());
+        assertThat(result).extracting(ItemDto::getId)
+                .containsExactly(1L, 3L, 4L);
+    }
+
+    private static ItemSearchQuery query(int from, int size) {
+        return ItemSearchQuery.builder()
+                .text("п")
+                .start(START)
+                .end(START.plusDays(1))
+                .from(from)
+                .size(size)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchIndexTest {
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @Test
+    void search_whenSubstringOfNameOrDescription_thenFoundIgnoringCase() {
+        index.put(new ItemDto(1L, "Дрель", "Аккумуляторная", true));
+        index.put(new ItemDto(2L, "Отвертка", "Крестовая, к дрели", true));
+        index.put(new ItemDto(3L, "Пила", "Ручная", true));
+
+        assertThat(ids(index.search(query("ДРЕЛ", 0, 10)))).containsExactly(1L, 2L);
+        assertThat(ids(index.search(query("ру", 0, 10)))).containsExactly(3L);
+    }
+
+    @Test
+    void search_whenItemUnavailable_thenNotReturned() {
+        index.put(new ItemDto(1L, "Дрель", "Ударная", false));
+
+        assertThat(index.search(query("дрель", 0, 10))).isEmpty();
+    }
+
+    @Test
+    void put_whenItemUpdated_thenOldTextNoLongerMatches() {
+        index.put(new ItemDto(1L, "Дрель", "Ударная", true));
+        index.put(new ItemDto(1L, "Перфоратор", "Ударный", true));
+
+        assertThat(index.search(query("дрель", 0, 10))).isEmpty();
+        assertThat(ids(index.search(query("перфоратор", 0, 10)))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void search_whenFromAndSizeGiven_thenReturnWindowOrderedById() {
+        index.rebuild(() -> List.of(
+                new ItemDto(5L, "Пила 5", "", true),
+                new ItemDto(2L, "Пила 2", "", true),
+                new ItemDto(9L, "Пила 9", "", true),
+                new ItemDto(7L, "Пила 7", "", true)));
+
+        assertThat(ids(index.search(query("пила", 1, 2)))).containsExactly(5L, 7L);
+    }
+
+    @Test
+    void rebuild_whenItemChangedWhileSnapshotRead_thenChangeKept() {
+        index.put(new ItemDto(1L, "Дрель", "", true));
+
+        index.rebuild(() -> {
+            List<ItemDto> snapshot = List.of(new ItemDto(1L, "Дрель", "", true));
+            index.put(new ItemDto(1L, "Перфоратор", "", true));
+            index.put(new ItemDto(2L, "Пила", "", true));
+            return snapshot;
+        });
+
+        assertThat(index.search(query("дрель", 0, 10))).isEmpty();
+        assertThat(ids(index.search(query("перфоратор", 0, 10)))).containsExactly(1L);
+        assertThat(ids(index.search(query("пила", 0, 10)))).containsExactly(2L);
+    }
+
+    @Test
+    void rebuild_whenItemMissingFromSnapshot_thenRemoved() {
+        index.put(new ItemDto(1L, "Дрель", "", true));
+
+        index.rebuild(() -> List.of(new ItemDto(2L, "Пила", "", true)));
+
+        assertThat(index.search(query("дрель", 0, 10))).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void intersect_thenReturnCommonSortedIds() {
+        long[] result = ItemSearchIndex.intersect(new long[]{1, 3, 5, 8}, new long[]{2, 3, 8, 9});
+
+        assertThat(result).containsExactly(3, 8);
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .toList();
+    }
+
+    private static ItemSearchQuery query(String text, int from, int size) {
+        return ItemSearchQuery.builder()
+                .text(text)
+                .from(from)
+                .size(size)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class LikeItemSearchEngineTest {
+
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("search-owner@test.com")
+                .build());
+    }
+
+    @Test
+    void search_whenDescriptionMatchesUnavailableItem_thenItemNotReturned() {
+        saveItem("Дрель", "Аккумуляторная дрель", true);
+        saveItem("Отвертка", "Дрель не нужна", false);
+
+        List<ItemDto> result = itemSearchEngine.search(query("дрель", 0, 20));
+
+        assertThat(result).extracting(ItemDto::getName).containsExactly("Дрель");
+    }
+
+    @Test
+    void search_thenResultsNotLoadedIntoPersistenceContext() {
+        saveItem("Рубанок", "Электрический рубанок", true);
+        saveItem("Рубанок ручной", "Рубанок по дереву", true);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ItemDto> result = itemSearchEngine.search(query("рубанок", 0, 20));
+
+        assertThat(result).hasSize(2);
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void search_whenFromAndSizeGiven_thenReturnRequestedWindow() {
+        for (int i = 0; i < 5; i++) {
+            saveItem("Пила " + i, "Ручная пила", true);
+        }
+
+        List<ItemDto> result = itemSearchEngine.search(query("пила", 2, 2));
+
+        assertThat(result).extracting(ItemDto::getName).containsExactly("Пила 2", "Пила 3");
+    }
+
+    @Test
+    void search_whenTextContainsWildcard_thenMatchedLiterally() {
+        saveItem("Скидка 50%", "Набор ключей", true);
+        saveItem("Скидка 500", "Набор головок", true);
+
+        List<ItemDto> result = itemSearchEngine.search(query("50%", 0, 20));
+
+        assertThat(result).extracting(ItemDto::getName).containsExactly("Скидка 50%");
+    }
+
+    @Test
+    void search_whenPeriodGiven_thenItemsWithApprovedOverlapExcluded() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        Item busy = saveItem("Лестница 1", "Стремянка", true);
+        Item waiting = saveItem("Лестница 2", "Стремянка", true);
+        saveItem("Лестница 3", "Стремянка", true);
+        saveBooking(busy, start.minusDays(1), start.plusDays(1), BookingStatus.APPROVED);
+        saveBooking(waiting, start, start.plusDays(1), BookingStatus.WAITING);
+
+        List<ItemDto> result = itemSearchEngine.search(ItemSearchQuery.builder()
+                .text("лестница")
+                .start(start)
+                .end(start.plusDays(2))
+                .from(0)
+                .size(20)
+                .build());
+
+        assertThat(result).extracting(ItemDto::getName).containsExactly("Лестница 2", "Лестница 3");
+    }
+
+    private void saveBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(Booking.builder()
+                .booker(owner)
+                .item(item)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+
+    private Item saveItem(String name, String description, boolean available) {
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build());
+    }
+
+    private static ItemSearchQuery query(String text, int from, int size) {
+        return ItemSearchQuery.builder()
+                .text(text)
+                .from(from)
+                .size(size)
+                .build();
+    }
+}
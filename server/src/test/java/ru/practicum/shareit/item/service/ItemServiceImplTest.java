@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,22 +8,32 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.CommentRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchQuery;
+import ru.practicum.shareit.persistence.GroupCommitWriter;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserBloomFilter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -40,9 +51,21 @@ class ItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserBloomFilter userBloomFilter;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private GroupCommitWriter groupCommitWriter;
+
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
@@ -52,6 +75,9 @@ class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Spy
+    private ItemViewCache itemViewCache = new ItemViewCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+
     @Captor
     private ArgumentCaptor<Item> itemArgumentCaptor;
 
@@ -180,6 +206,7 @@ class ItemServiceImplTest {
         assertEquals("Test Item", savedItem.getName());
         assertEquals("Test Description", savedItem.getDescription());
         assertTrue(savedItem.getAvailable());
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
         assertEquals(owner.getId(), savedItem.getOwner().getId());
         assertEquals(itemRequest.getId(), savedItem.getRequest().getId());
     }
@@ -243,7 +270,11 @@ class ItemServiceImplTest {
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
         when(commentRepository.findByItemId(itemId)).thenReturn(List.of(comment));
-        when(bookingRepository.findByItemId(itemId)).thenReturn(List.of(pastBooking, futureBooking));
+        when(bookingRepository.findLastCurrentAndNextApprovedBookingIds(eq(List.of(itemId)), any(), any()))
+                .thenReturn(List.of(pastBooking.getId(), futureBooking.getId()));
+        when(bookingRepository.findBookingDtosByIdIn(List.of(pastBooking.getId(), futureBooking.getId())))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(pastBooking),
+                        BookingMapper.mapToBookingDto(futureBooking)));
 
         ItemWithCommentsDto result = itemService.getItem(itemId);
 
@@ -251,8 +282,8 @@ class ItemServiceImplTest {
         assertThat(result.getId()).isEqualTo(itemId);
         assertThat(result.getName()).isEqualTo(item.getName());
         assertThat(result.getComments()).hasSize(1);
-        assertThat(result.getLastBooking()).isNotNull();
-        assertThat(result.getNextBooking()).isNotNull();
+        assertThat(result.getLastBooking().getId()).isEqualTo(pastBooking.getId());
+        assertThat(result.getNextBooking().getId()).isEqualTo(futureBooking.getId());
     }
 
     @Test
@@ -261,8 +292,11 @@ class ItemServiceImplTest {
         List<Item> ownerItems = List.of(item);
 
         when(itemRepository.findByOwnerId(ownerId)).thenReturn(ownerItems);
-        when(bookingRepository.findAllBookingsByItemByUserId(ownerId))
-                .thenReturn(List.of(pastBooking, futureBooking));
+        when(bookingRepository.findLastCurrentAndNextApprovedBookingIds(eq(List.of(item.getId())), any(), any()))
+                .thenReturn(List.of(pastBooking.getId(), futureBooking.getId()));
+        when(bookingRepository.findBookingDtosByIdIn(List.of(pastBooking.getId(), futureBooking.getId())))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(pastBooking),
+                        BookingMapper.mapToBookingDto(futureBooking)));
         when(commentRepository.findByAuthorId(ownerId)).thenReturn(List.of(comment));
 
         Collection<ItemWithCommentsDto> result = itemService.getOwnerItems(ownerId);
@@ -275,14 +309,66 @@ class ItemServiceImplTest {
         assertThat(dto.getNextBooking()).isNotNull();
     }
 
+    @Test
+    void getItemAvailability_whenBookingsOverlap_thenMergeBusyAndReturnGaps() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(bookingRepository.findApprovedPeriodsInWindow(item.getId(), from, to)).thenReturn(List.of(
+                new BookingPeriod(1L, from.minusDays(1), from.plusDays(1)),
+                new BookingPeriod(2L, from.plusDays(3), from.plusDays(5)),
+                new BookingPeriod(3L, from.plusDays(4), from.plusDays(6)),
+                new BookingPeriod(4L, from.plusDays(6), from.plusDays(7))));
+
+        ItemAvailabilityDto result = itemService.getItemAvailability(item.getId(), from, to);
+
+        assertThat(result.getBusy()).containsExactly(
+                new TimeIntervalDto(from, from.plusDays(1)),
+                new TimeIntervalDto(from.plusDays(3), from.plusDays(7)));
+        assertThat(result.getFree()).containsExactly(
+                new TimeIntervalDto(from.plusDays(1), from.plusDays(3)),
+                new TimeIntervalDto(from.plusDays(7), to));
+    }
+
+    @Test
+    void getItemAvailability_whenNoBookings_thenWholeWindowFree() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(bookingRepository.findApprovedPeriodsInWindow(item.getId(), from, to)).thenReturn(List.of());
+
+        ItemAvailabilityDto result = itemService.getItemAvailability(item.getId(), from, to);
+
+        assertThat(result.getBusy()).isEmpty();
+        assertThat(result.getFree()).containsExactly(new TimeIntervalDto(from, to));
+    }
+
+    @Test
+    void getItemAvailability_whenItemNotFound_thenThrowNotFoundException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.existsById(item.getId())).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> itemService.getItemAvailability(item.getId(), from, from.plusDays(1)));
+    }
+
+    @Test
+    void getItemAvailability_whenWindowEmpty_thenThrowValidationException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(ValidationException.class, () -> itemService.getItemAvailability(item.getId(), from, from));
+        verify(bookingRepository, never()).findApprovedPeriodsInWindow(any(), any(), any());
+    }
+
     @Test
     void searchItem_whenTextIsValid_thenReturnMatchingItems() {
         String searchText = "test";
-        List<Item> foundItems = List.of(item);
+        List<ItemDto> foundItems = List.of(ItemMapper.mapToItemDto(item));
 
-        when(itemRepository.searchItem(searchText)).thenReturn(foundItems);
+        when(itemSearchEngine.search(ItemSearchQuery.builder().text(searchText).from(0).size(20).build()))
+                .thenReturn(foundItems);
 
-        Collection<ItemDto> result = itemService.searchItem(searchText);
+        Collection<ItemDto> result = itemService.searchItem(" " + searchText + " ", null, null, 0, 20);
 
         assertThat(result).hasSize(1);
         assertThat(result.iterator().next().getName()).isEqualTo(item.getName());
@@ -290,10 +376,42 @@ class ItemServiceImplTest {
 
     @Test
     void searchItem_WhenTextIsNull_ShouldReturnEmptyList() {
-        Collection<ItemDto> result = itemService.searchItem(null);
+        Collection<ItemDto> result = itemService.searchItem(null, null, null, 0, 20);
 
         assertThat(result).isEmpty();
-        verify(itemRepository, never()).searchItem(anyString());
+        verify(itemSearchEngine, never()).search(any());
+    }
+
+    @Test
+    void searchItem_whenSizeNotPositive_thenThrowValidationException() {
+        assertThrows(ValidationException.class, () -> itemService.searchItem("test", null, null, 0, 0));
+        verify(itemSearchEngine, never()).search(any());
+    }
+
+    @Test
+    void searchItem_whenOnlyStartGiven_thenThrowValidationException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(ValidationException.class, () -> itemService.searchItem("test", start, null, 0, 20));
+        verify(itemSearchEngine, never()).search(any());
+    }
+
+    @Test
+    void searchItem_whenPeriodGiven_thenPassedToEngine() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        ItemSearchQuery expectedQuery = ItemSearchQuery.builder()
+                .text("test")
+                .start(start)
+                .end(end)
+                .from(0)
+                .size(20)
+                .build();
+        when(itemSearchEngine.search(expectedQuery)).thenReturn(List.of(ItemMapper.mapToItemDto(item)));
+
+        Collection<ItemDto> result = itemService.searchItem("test", start, end, 0, 20);
+
+        assertThat(result).hasSize(1);
     }
 
     @Test
@@ -308,14 +426,14 @@ class ItemServiceImplTest {
         when(bookingRepository.findByBookerIdAndItemIdAndStatusApproved(authorId, itemId))
                 .thenReturn(completedBookings);
 
-        when(commentRepository.save(any(Comment.class))).thenReturn(comment);
+        when(groupCommitWriter.insert(any(Comment.class), any())).thenReturn(comment);
 
         CommentDto result = itemService.createComment(itemId, newCommentRequest, authorId);
 
         assertThat(result).isNotNull();
         assertThat(result.getText()).isEqualTo("Great item!");
 
-        verify(commentRepository).save(commentArgumentCaptor.capture());
+        verify(groupCommitWriter).insert(commentArgumentCaptor.capture(), any());
         Comment savedComment = commentArgumentCaptor.getValue();
         assertThat(savedComment.getText()).isEqualTo("Great item!");
         assertThat(savedComment.getAuthor()).isEqualTo(booker);
@@ -336,7 +454,7 @@ class ItemServiceImplTest {
                 () -> itemService.createComment(itemId, newCommentRequest, authorId));
 
         assertThat(exception.getMessage()).contains("не брали эту вещь в аренду");
-        verify(commentRepository, never()).save(any());
+        verify(groupCommitWriter, never()).insert(any(), any());
     }
 
     @Test
@@ -362,7 +480,7 @@ class ItemServiceImplTest {
                 () -> itemService.createComment(itemId, newCommentRequest, authorId));
 
         assertThat(exception.getMessage()).contains("нет завершенных бронирований");
-        verify(commentRepository, never()).save(any());
+        verify(groupCommitWriter, never()).insert(any(), any());
     }
 
     @Test
@@ -376,7 +494,7 @@ class ItemServiceImplTest {
                 () -> itemService.createComment(itemId, newCommentRequest, authorId));
 
         assertThat(exception.getMessage()).contains("Item", "не найдена");
-        verify(commentRepository, never()).save(any());
+        verify(groupCommitWriter, never()).insert(any(), any());
     }
 
     @Test
@@ -391,6 +509,6 @@ class ItemServiceImplTest {
                 () -> itemService.createComment(itemId, newCommentRequest, authorId));
 
         assertThat(exception.getMessage()).contains("Пользователь", "не найден");
-        verify(commentRepository, never()).save(any());
+        verify(groupCommitWriter, never()).insert(any(), any());
     }
 }
\ No newline at end of file
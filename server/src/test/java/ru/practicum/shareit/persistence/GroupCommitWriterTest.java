@@ -0,0 +1,127 @@
+package ru.practicum.shareit.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class GroupCommitWriterTest {
+
+    @Autowired
+    private GroupCommitWriter groupCommitWriter;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User author;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(User.builder().name("author").email("group-commit@test.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .owner(author)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll(commentRepository.findByItemId(item.getId()));
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(author.getId());
+    }
+
+    @Test
+    void submit_whenManyConcurrentInserts_thenEachCompletesWithGeneratedId() {
+        long batchesBefore = meterRegistry.get("shareit.write.batch.size").summary().count();
+        List<CompletableFuture<Comment>> results = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            results.add(groupCommitWriter.submit(comment("Отзыв " + i, author)));
+        }
+        List<Long> ids = results.stream()
+                .map(CompletableFuture::join)
+                .map(Comment::getId)
+                .toList();
+
+        assertThat(ids).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(commentRepository.findByItemId(item.getId())).hasSize(50);
+        assertThat(meterRegistry.get("shareit.write.batch.size").summary().count() - batchesBefore)
+                .isBetween(1L, 50L);
+    }
+
+    @Test
+    void submit_whenOneInsertFails_thenOthersStillCommitted() {
+        User missingAuthor = User.builder().id(Long.MAX_VALUE).name("missing").build();
+
+        CompletableFuture<Comment> first = groupCommitWriter.submit(comment("Первый", author));
+        CompletableFuture<Comment> broken = groupCommitWriter.submit(comment("Без автора", missingAuthor));
+        CompletableFuture<Comment> last = groupCommitWriter.submit(comment("Последний", author));
+
+        assertThat(first.join().getId()).isNotNull();
+        assertThat(last.join().getId()).isNotNull();
+        CompletionException exception = assertThrows(CompletionException.class, broken::join);
+        assertThat(exception.getCause()).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(commentRepository.findByItemId(item.getId()))
+                .extracting(Comment::getText)
+                .containsExactlyInAnyOrder("Первый", "Последний");
+    }
+
+    @Test
+    void insert_whenCheckFailsInWriteTransaction_thenOnlyThatEntryFails() {
+        CompletableFuture<Comment> first = groupCommitWriter.submit(comment("Первый", author));
+        CompletableFuture<Comment> rejected = groupCommitWriter.submit(comment("Отклоненный", author), ignored -> {
+            throw new NotFoundException("Item с id = " + item.getId() + " не найдена.");
+        });
+        CompletableFuture<Comment> last = groupCommitWriter.submit(comment("Последний", author));
+
+        assertThat(first.join().getId()).isNotNull();
+        assertThat(last.join().getId()).isNotNull();
+        CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+        assertThat(exception.getCause()).isInstanceOf(NotFoundException.class);
+        assertThat(commentRepository.findByItemId(item.getId()))
+                .extracting(Comment::getText)
+                .containsExactlyInAnyOrder("Первый", "Последний");
+    }
+
+    private Comment comment(String text, User commentAuthor) {
+        return Comment.builder()
+                .text(text)
+                .author(commentAuthor)
+                .item(item)
+                .createdDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,9 +8,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemForItemRequestDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
@@ -18,7 +22,9 @@ import ru.practicum.shareit.request.dto.NewItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserBloomFilter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -44,6 +50,13 @@ class ItemRequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserBloomFilter userBloomFilter;
+
+    @Spy
+    private ItemRequestViewCache itemRequestViewCache =
+            new ItemRequestViewCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+
     @Captor
     private ArgumentCaptor<ItemRequest> itemRequestArgumentCaptor;
 
@@ -175,11 +188,11 @@ class ItemRequestServiceImplTest {
     @Test
     void getItemRequestsByRequester_whenRequestsExist_thenReturnRequestsWithItems() {
         List<ItemRequest> requests = List.of(itemRequest);
-        List<Item> items = List.of(item);
+        List<ItemForItemRequestDto> items = List.of(ItemMapper.mapToItemForItemRequestDto(item));
 
         when(userRepository.findById(requester.getId())).thenReturn(Optional.of(requester));
         when(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(requester.getId())).thenReturn(requests);
-        when(itemRepository.findByRequestIdIn(List.of(itemRequest.getId()))).thenReturn(items);
+        when(itemRepository.findItemsForRequests(List.of(itemRequest.getId()))).thenReturn(items);
 
         List<ItemRequestDto> result = itemRequestService.getItemRequestsByRequester(requester.getId());
 
@@ -197,7 +210,7 @@ class ItemRequestServiceImplTest {
 
         when(userRepository.findById(requester.getId())).thenReturn(Optional.of(requester));
         when(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(requester.getId())).thenReturn(requests);
-        when(itemRepository.findByRequestIdIn(List.of(itemRequest.getId()))).thenReturn(Collections.emptyList());
+        when(itemRepository.findItemsForRequests(List.of(itemRequest.getId()))).thenReturn(Collections.emptyList());
 
         List<ItemRequestDto> result = itemRequestService.getItemRequestsByRequester(requester.getId());
 
@@ -222,12 +235,12 @@ class ItemRequestServiceImplTest {
         List<Long> requestIds = otherUserRequests.stream()
                 .map(ItemRequest::getId)
                 .toList();
-        List<Item> items = List.of(anotherItem);
+        List<ItemForItemRequestDto> items = List.of(ItemMapper.mapToItemForItemRequestDto(anotherItem));
 
         when(userRepository.findById(requester.getId())).thenReturn(Optional.of(requester));
         when(itemRequestRepository.findByRequesterIdNotOrderByCreatedDesc(requester.getId()))
                 .thenReturn(otherUserRequests);
-        when(itemRepository.findByRequestIdIn(requestIds)).thenReturn(items);
+        when(itemRepository.findItemsForRequests(requestIds)).thenReturn(items);
 
         List<ItemRequestDto> result = itemRequestService.getOtherUserRequests(requester.getId());
 
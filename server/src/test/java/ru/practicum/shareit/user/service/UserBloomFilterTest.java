@@ -0,0 +1,99 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserBloomFilterTest {
+
+    @Mock
+    private ObjectProvider<UserRepository> userRepositoryProvider;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+    private UserBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new UserBloomFilter(userRepositoryProvider, meterRegistry, true, 1000, 0.01);
+    }
+
+    @Test
+    void isAbsent_whenNotLoaded_thenNeverRejects() {
+        assertThat(filter.isAbsent(42L)).isFalse();
+        assertThat(filter.isEmailAbsent("user@test.com")).isFalse();
+    }
+
+    @Test
+    void isAbsent_whenDisabled_thenNeverRejectsAndDatabaseNotRead() {
+        UserBloomFilter disabled = new UserBloomFilter(userRepositoryProvider, meterRegistry, false, 1000, 0.01);
+
+        disabled.load();
+        disabled.add(1L, "first@test.com");
+
+        assertThat(disabled.isAbsent(1_000_000L)).isFalse();
+        assertThat(disabled.isEmailAbsent("other@test.com")).isFalse();
+        verifyNoInteractions(userRepositoryProvider);
+    }
+
+    @Test
+    void isAbsent_whenLoaded_thenUnknownRejectedAndKnownPassed() {
+        load(List.of(1L, 2L), List.of("first@test.com"));
+        filter.add(3L, "third@test.com");
+
+        assertThat(filter.isAbsent(1L)).isFalse();
+        assertThat(filter.isAbsent(3L)).isFalse();
+        assertThat(filter.isAbsent(1_000_000L)).isTrue();
+        assertThat(filter.isEmailAbsent("first@test.com")).isFalse();
+        assertThat(filter.isEmailAbsent("third@test.com")).isFalse();
+        assertThat(filter.isEmailAbsent("other@test.com")).isTrue();
+    }
+
+    @Test
+    void falsePositiveRate_thenReportedPerFilter() {
+        load(List.of(), List.of());
+        filter.isAbsent(1L);
+        filter.isAbsent(2L);
+        filter.isAbsent(3L);
+        filter.recordIdFalsePositive();
+
+        assertThat(meterRegistry.get("shareit.user.filter.false.positive.rate").tag("filter", "id")
+                .gauge().value()).isEqualTo(0.25);
+        assertThat(meterRegistry.get("shareit.user.filter.rejections").tag("filter", "id")
+                .functionCounter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void bloomFilter_whenFilledToCapacity_thenNoFalseNegativesAndFalsePositivesNearTarget() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        LongStream.rangeClosed(1, 10_000).forEach(bloom::put);
+
+        assertThat(LongStream.rangeClosed(1, 10_000).allMatch(bloom::mightContain)).isTrue();
+        long falsePositives = LongStream.rangeClosed(10_001, 110_000).filter(bloom::mightContain).count();
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    private void load(List<Long> ids, List<String> emails) {
+        when(userRepositoryProvider.getObject()).thenReturn(userRepository);
+        when(userRepository.findAllIds()).thenReturn(ids);
+        when(userRepository.findAllEmails()).thenReturn(emails);
+        filter.load();
+    }
+}
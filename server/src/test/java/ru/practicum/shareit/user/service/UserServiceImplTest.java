@@ -7,6 +7,7 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.User;
@@ -34,6 +35,12 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserBloomFilter userBloomFilter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Captor
     private ArgumentCaptor<User> userArgumentCaptor;
 
@@ -61,6 +68,29 @@ class UserServiceImplTest {
         assertThrows(NotFoundException.class, () -> userService.getUser(userId));
     }
 
+    @Test
+    void getUserById_WhenFilterRejectsId_ThenNotFoundWithoutLookup() {
+        long userId = 1L;
+        when(userBloomFilter.isAbsent(userId)).thenReturn(true);
+
+        assertThrows(NotFoundException.class, () -> userService.getUser(userId));
+        verify(userRepository, never()).findById(userId);
+    }
+
+    @Test
+    void createUser_WhenFilterRejectsEmail_ThenSavedWithoutExistsCheck() {
+        NewUserRequest newUser = new NewUserRequest();
+        newUser.setName("Name");
+        newUser.setEmail("name@mail.ru");
+        when(userBloomFilter.isEmailAbsent(newUser.getEmail())).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.createUser(newUser);
+
+        verify(userRepository, never()).existsByEmail(newUser.getEmail());
+        verify(userRepository).save(any(User.class));
+    }
+
     @Test
     void createUser_WhenEmailAlreadyExists_ThenThrowConflictException() {
         NewUserRequest newUser = new NewUserRequest();